@@ -2,14 +2,21 @@ package com.selimhorri.app;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 
 @SpringBootApplication
 @EnableEurekaClient
 public class ProductServiceApplication {
-
+	
+	// Enough for every bean instantiation step, later steps are dropped once full
+	private static final int STARTUP_STEPS = 10_000;
+	
 	public static void main(String[] args) {
-		SpringApplication.run(ProductServiceApplication.class, args);
+		final SpringApplication application = new SpringApplication(ProductServiceApplication.class);
+		// Per-bean startup timeline, GET /actuator/startup and StartupReport
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 	
 	
@@ -0,0 +1,42 @@
+package com.selimhorri.app.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CachedRead<T> {
+	
+	private final T value;
+	private final boolean stale;
+	private final Duration age;
+	
+	public static <T> CachedRead<T> fresh(final T value) {
+		return new CachedRead<>(value, false, Duration.ZERO);
+	}
+	
+	public static <T> CachedRead<T> stale(final T value, final Duration age) {
+		return new CachedRead<>(value, true, age);
+	}
+	
+	// Stale bodies carry Age and the RFC 7234 "Response is Stale" warning
+	public <B> ResponseEntity<B> toResponseEntity(final Function<? super T, B> body) {
+		final ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+		if (this.stale)
+			builder.header(HttpHeaders.AGE, String.valueOf(this.age.toSeconds()))
+					.header(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+		return builder.body(body.apply(this.value));
+	}
+	
+	
+	
+}
@@ -0,0 +1,205 @@
+package com.selimhorri.app.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps the last good answer per read; while the database is unhealthy it is served instead of an error
+@Component
+@Slf4j
+public class StaleReadCache {
+	
+	private final boolean enabled;
+	private final Duration maxStaleness;
+	private final Duration refreshInterval;
+	private final CircuitBreaker circuitBreaker;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, Entry> entries;
+	private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+	private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(100), new NamedThreadFactory("stale-refresh-"), new ThreadPoolExecutor.DiscardPolicy());
+	
+	public StaleReadCache(
+			@Value("${app.stale-cache.enabled:true}") final boolean enabled,
+			@Value("${app.stale-cache.max-entries:1000}") final int maxEntries,
+			@Value("${app.stale-cache.max-staleness:1h}") final Duration maxStaleness,
+			@Value("${app.stale-cache.refresh-interval:1s}") final Duration refreshInterval,
+			final CircuitBreakerRegistry circuitBreakerRegistry,
+			final MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.maxStaleness = maxStaleness;
+		this.refreshInterval = refreshInterval;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("productService");
+		this.meterRegistry = meterRegistry;
+		// Access-ordered LRU, bounded so that per-id reads cannot grow it without limit
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+				return this.size() > maxEntries;
+			}
+		});
+		meterRegistry.gaugeMapSize("catalog.stale.entries", Tags.empty(), this.entries);
+	}
+	
+	public <T> CompletableFuture<CachedRead<T>> read(final String operation, final Object key,
+			final Supplier<CompletableFuture<T>> loader) {
+		if (!this.enabled)
+			return load(loader).thenApply(CachedRead::fresh);
+		
+		final String cacheKey = operation + ':' + key;
+		// Breaker open: the call would be shed anyway, answer from cache and let the background refresh probe
+		final CircuitBreaker.State state = this.circuitBreaker.getState();
+		if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+			final CachedRead<T> stale = this.serveStale(operation, cacheKey, loader);
+			if (stale != null)
+				return CompletableFuture.completedFuture(stale);
+		}
+		
+		return load(loader).handle((value, e) -> {
+			if (e == null) {
+				this.entries.put(cacheKey, new Entry(value));
+				return CachedRead.fresh(value);
+			}
+			final Throwable cause = unwrap(e);
+			if (isDatabaseUnavailable(cause)) {
+				final CachedRead<T> stale = this.serveStale(operation, cacheKey, loader);
+				if (stale != null) {
+					log.warn("*** Serving stale {} after: {} *", cacheKey, cause.getMessage());
+					return stale;
+				}
+			}
+			throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+		});
+	}
+	
+	@PreDestroy
+	void shutdown() {
+		this.refreshExecutor.shutdownNow();
+	}
+	
+	private <T> CachedRead<T> serveStale(final String operation, final String cacheKey,
+			final Supplier<CompletableFuture<T>> loader) {
+		final Entry entry = this.entries.get(cacheKey);
+		if (entry == null)
+			return null;
+		final Duration age = Duration.ofNanos(System.nanoTime() - entry.loadedAt);
+		if (age.compareTo(this.maxStaleness) > 0)
+			return null;
+		
+		final Meters operationMeters = this.meters.computeIfAbsent(operation, this::meters);
+		operationMeters.served.increment();
+		operationMeters.age.record(age.toMillis() / 1000.0);
+		this.refresh(cacheKey, entry, loader);
+		
+		@SuppressWarnings("unchecked")
+		final T value = (T) entry.value;
+		return CachedRead.stale(value, age);
+	}
+	
+	// At most one refresh per entry and refresh interval, however many stale reads come in
+	private <T> void refresh(final String cacheKey, final Entry entry, final Supplier<CompletableFuture<T>> loader) {
+		final long now = System.nanoTime();
+		final long lastAttempt = entry.lastRefreshAttempt.get();
+		if (now - lastAttempt < this.refreshInterval.toNanos() || !entry.lastRefreshAttempt.compareAndSet(lastAttempt, now))
+			return;
+		this.refreshExecutor.execute(() -> load(loader).whenComplete((value, e) -> {
+			if (e == null) {
+				this.entries.put(cacheKey, new Entry(value));
+				log.info("*** Refreshed stale {} *", cacheKey);
+			}
+		}));
+	}
+	
+	private Meters meters(final String operation) {
+		return new Meters(
+				Counter.builder("catalog.stale.served")
+						.description("Reads answered from the stale cache because the database was unavailable")
+						.tag("operation", operation)
+						.register(this.meterRegistry),
+				DistributionSummary.builder("catalog.stale.age")
+						.description("Age of the stale answers served")
+						.baseUnit("seconds")
+						.tag("operation", operation)
+						.register(this.meterRegistry));
+	}
+	
+	private static <T> CompletableFuture<T> load(final Supplier<CompletableFuture<T>> loader) {
+		try {
+			return loader.get();
+		}
+		catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+	
+	private static boolean isDatabaseUnavailable(final Throwable e) {
+		return e instanceof ServiceUnavailableException
+				|| e instanceof DataAccessException
+				|| e instanceof TransactionException;
+	}
+	
+	private static Throwable unwrap(final Throwable e) {
+		return (e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null
+				? e.getCause()
+				: e;
+	}
+	
+	private static final class Entry {
+		
+		private final Object value;
+		private final long loadedAt = System.nanoTime();
+		// Starts one interval in the past so the first stale read may refresh right away
+		private final AtomicLong lastRefreshAttempt;
+		
+		private Entry(final Object value) {
+			this.value = value;
+			this.lastRefreshAttempt = new AtomicLong(this.loadedAt - Long.MAX_VALUE / 2);
+		}
+		
+	}
+	
+	private static final class Meters {
+		
+		private final Counter served;
+		private final DistributionSummary age;
+		
+		private Meters(final Counter served, final DistributionSummary age) {
+			this.served = served;
+			this.age = age;
+		}
+		
+	}
+	
+	
+	
+}
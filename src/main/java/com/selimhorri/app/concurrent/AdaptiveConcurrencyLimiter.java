@@ -0,0 +1,122 @@
+package com.selimhorri.app.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Gradient limit: grows while latency stays near its long-term average,
+// shrinks as soon as requests start queueing (latency up) or failing (multiplicative backoff)
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+	private static final double BACKOFF_RATIO = 0.9;
+	private static final double SMOOTHING = 0.2;
+	private static final int LONG_RTT_WINDOW = 100;
+
+	private final boolean enabled;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double rttTolerance;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final Counter rejectedCounter;
+	private volatile double limit;
+	private double longRttNanos;
+
+	public AdaptiveConcurrencyLimiter(
+			@Value("${app.concurrency-limit.enabled:true}") final boolean enabled,
+			@Value("${app.concurrency-limit.initial-limit:10}") final int initialLimit,
+			@Value("${app.concurrency-limit.min-limit:1}") final int minLimit,
+			@Value("${app.concurrency-limit.max-limit:100}") final int maxLimit,
+			@Value("${app.concurrency-limit.rtt-tolerance:2.0}") final double rttTolerance,
+			final MeterRegistry meterRegistry) {
+		if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit)
+			throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+		this.enabled = enabled;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.rttTolerance = rttTolerance;
+		this.limit = initialLimit;
+		this.rejectedCounter = Counter.builder("db.concurrency.rejected")
+				.description("Calls shed because the adaptive concurrency limit was reached")
+				.register(meterRegistry);
+		Gauge.builder("db.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+				.description("Current adaptive concurrency limit")
+				.register(meterRegistry);
+		Gauge.builder("db.concurrency.inflight", this.inflight, AtomicInteger::get)
+				.description("Calls currently holding a concurrency permit")
+				.register(meterRegistry);
+		log.info("Adaptive concurrency limit {}, initial {} (min {}, max {})",
+				enabled ? "enabled" : "disabled", initialLimit, minLimit, maxLimit);
+	}
+
+	public int getLimit() {
+		return (int) this.limit;
+	}
+
+	public int getInflight() {
+		return this.inflight.get();
+	}
+
+	public boolean tryAcquire() {
+		if (!this.enabled) {
+			this.inflight.incrementAndGet();
+			return true;
+		}
+		while (true) {
+			final int current = this.inflight.get();
+			if (current >= (int) this.limit) {
+				this.rejectedCounter.increment();
+				return false;
+			}
+			if (this.inflight.compareAndSet(current, current + 1))
+				return true;
+		}
+	}
+
+	// Releases a permit without feeding a sample, e.g. when the call never ran
+	public void release() {
+		this.inflight.decrementAndGet();
+	}
+
+	public void release(final long rtt, final TimeUnit unit, final boolean dropped) {
+		final int inflightAtCompletion = this.inflight.getAndDecrement();
+		if (this.enabled)
+			this.onSample(unit.toNanos(rtt), inflightAtCompletion, dropped);
+	}
+
+	private synchronized void onSample(final long rttNanos, final int inflightAtCompletion, final boolean dropped) {
+		final double current = this.limit;
+		if (dropped) {
+			this.limit = Math.max(this.minLimit, current * BACKOFF_RATIO);
+			return;
+		}
+		if (rttNanos <= 0)
+			return;
+
+		this.longRttNanos = this.longRttNanos == 0
+				? rttNanos
+				: this.longRttNanos + (rttNanos - this.longRttNanos) / LONG_RTT_WINDOW;
+		// Load went away, let the baseline recover faster than the window would
+		if (this.longRttNanos / rttNanos > 2)
+			this.longRttNanos *= 0.95;
+		// Under-used limits say nothing about capacity, don't let them grow unbounded
+		if (inflightAtCompletion < current / 2)
+			return;
+
+		final double gradient = Math.max(0.5, Math.min(1.0, this.rttTolerance * this.longRttNanos / rttNanos));
+		final double target = current * gradient + Math.sqrt(current);
+		final double smoothed = current * (1 - SMOOTHING) + target * SMOOTHING;
+		this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, smoothed));
+	}
+
+
+
+}
@@ -0,0 +1,92 @@
+package com.selimhorri.app.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
+import com.selimhorri.app.metrics.RequestResourceUsage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class DbBulkhead {
+	
+	private final boolean enabled;
+	private final ThreadPoolExecutor executor;
+	private final Timer waitTimer;
+	private final Counter rejectedCounter;
+	
+	public DbBulkhead(
+			@Value("${app.async.enabled:false}") final boolean enabled,
+			@Value("${spring.datasource.hikari.maximum-pool-size:10}") final int poolSize,
+			@Value("${app.async.queue-capacity:100}") final int queueCapacity,
+			final MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		// One worker per pooled connection: extra workers would only park inside Hikari's getConnection
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new NamedThreadFactory("db-bulkhead-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.waitTimer = Timer.builder("db.bulkhead.wait")
+				.description("Time a task waited in the DB bulkhead queue before running")
+				.register(meterRegistry);
+		this.rejectedCounter = Counter.builder("db.bulkhead.rejected")
+				.description("Tasks rejected because the DB bulkhead queue was full")
+				.register(meterRegistry);
+		Gauge.builder("db.bulkhead.queue.size", this.executor, e -> e.getQueue().size())
+				.description("Tasks waiting for a DB bulkhead worker")
+				.register(meterRegistry);
+		Gauge.builder("db.bulkhead.active", this.executor, ThreadPoolExecutor::getActiveCount)
+				.description("DB bulkhead workers currently running a task")
+				.register(meterRegistry);
+		log.info("DB bulkhead async mode {}, {} workers, queue capacity {}",
+				enabled ? "enabled" : "disabled", poolSize, queueCapacity);
+	}
+	
+	public <T> CompletableFuture<T> supply(final Supplier<T> supplier) {
+		if (!this.enabled) {
+			try {
+				return CompletableFuture.completedFuture(supplier.get());
+			}
+			catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		}
+		
+		final long submittedAt = System.nanoTime();
+		// Work done on the worker still counts towards the submitting request
+		final RequestResourceUsage usage = RequestResourceUsage.current();
+		try {
+			return CompletableFuture.supplyAsync(() -> {
+				this.waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+				return usage == null ? supplier.get() : usage.charge(supplier);
+			}, this.executor);
+		}
+		catch (RejectedExecutionException e) {
+			this.rejectedCounter.increment();
+			// Failed like any other outcome, so callers composing the future (StaleReadCache, SingleFlight) see it
+			return CompletableFuture.failedFuture(new ServiceUnavailableException("Database bulkhead is full, retry later", e));
+		}
+	}
+	
+	@PreDestroy
+	void shutdown() {
+		this.executor.shutdown();
+	}
+	
+	
+	
+}
@@ -0,0 +1,85 @@
+package com.selimhorri.app.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Runs outside the transaction advice, so shed calls never ask Hikari for a connection
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class LoadSheddingAspect {
+
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final CircuitBreaker circuitBreaker;
+	private final Duration retryAfter;
+
+	public LoadSheddingAspect(
+			final AdaptiveConcurrencyLimiter limiter,
+			final CircuitBreakerRegistry circuitBreakerRegistry,
+			@Value("${app.concurrency-limit.retry-after:1s}") final Duration retryAfter) {
+		this.limiter = limiter;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("productService");
+		this.retryAfter = retryAfter;
+	}
+
+	@Around("execution(public * com.selimhorri.app.service.impl.ProductServiceImpl.*(..))"
+			+ " || execution(public * com.selimhorri.app.service.impl.CategoryServiceImpl.*(..))")
+	public Object limit(final ProceedingJoinPoint joinPoint) throws Throwable {
+
+		if (!this.circuitBreaker.tryAcquirePermission()) {
+			log.debug("*** Circuit open, shedding {} *", joinPoint.getSignature().toShortString());
+			throw new ServiceUnavailableException("Catalog database is unavailable, retry later",
+					Duration.ofMillis(this.circuitBreaker.getCircuitBreakerConfig()
+							.getWaitIntervalFunctionInOpenState().apply(1)));
+		}
+		if (!this.limiter.tryAcquire()) {
+			this.circuitBreaker.releasePermission();
+			log.debug("*** Concurrency limit {} reached, shedding {} *",
+					this.limiter.getLimit(), joinPoint.getSignature().toShortString());
+			throw new ServiceUnavailableException("Catalog is overloaded, retry later", this.retryAfter);
+		}
+
+		final long start = System.nanoTime();
+		try {
+			final Object result = joinPoint.proceed();
+			final long elapsed = System.nanoTime() - start;
+			this.limiter.release(elapsed, TimeUnit.NANOSECONDS, false);
+			this.circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+			return result;
+		}
+		catch (Throwable e) {
+			final long elapsed = System.nanoTime() - start;
+			this.limiter.release(elapsed, TimeUnit.NANOSECONDS, !isClientError(e));
+			// Ignored exceptions (see resilience4j ignore-exceptions) only release the permission
+			this.circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, e);
+			throw e;
+		}
+	}
+
+	// Outcomes of a healthy database, not signs of overload
+	private static boolean isClientError(final Throwable e) {
+		return e instanceof ProductNotFoundException
+				|| e instanceof CategoryNotFoundException
+				|| e instanceof IllegalArgumentException;
+	}
+
+
+
+}
@@ -0,0 +1,21 @@
+package com.selimhorri.app.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public final class NamedThreadFactory implements ThreadFactory {
+	
+	private final String prefix;
+	private final AtomicInteger sequence = new AtomicInteger();
+	
+	@Override
+	public Thread newThread(final Runnable runnable) {
+		final Thread thread = new Thread(runnable, this.prefix + this.sequence.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+	
+}
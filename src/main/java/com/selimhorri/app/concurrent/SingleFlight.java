@@ -0,0 +1,105 @@
+package com.selimhorri.app.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+@Component
+public class SingleFlight {
+	
+	private final ConcurrentMap<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+	// One counter per operation tag, built on first use instead of on every coalesced call
+	private final ConcurrentMap<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+	private final boolean enabled;
+	private final Duration timeout;
+	private final MeterRegistry meterRegistry;
+	
+	public SingleFlight(
+			@Value("${app.coalescing.enabled:true}") final boolean enabled,
+			@Value("${app.coalescing.timeout:5s}") final Duration timeout,
+			final MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.timeout = timeout;
+		this.meterRegistry = meterRegistry;
+		meterRegistry.gaugeMapSize("catalog.reads.inflight", Tags.empty(), this.inFlight);
+	}
+	
+	// Concurrent callers with the same operation and key share the first caller's load instead of starting their own
+	public <T> CompletableFuture<T> execute(final String operation, final Object key, final Supplier<CompletableFuture<T>> loader) {
+		if (!this.enabled) {
+			return loader.get();
+		}
+		
+		final String flightKey = operation + ':' + key;
+		final CompletableFuture<T> leader = new CompletableFuture<>();
+		@SuppressWarnings("unchecked")
+		final CompletableFuture<T> existing = (CompletableFuture<T>) this.inFlight.putIfAbsent(flightKey, leader);
+		if (existing != null) {
+			this.coalescedCounters.computeIfAbsent(operation, this::coalescedCounter).increment();
+			return this.follow(existing, flightKey);
+		}
+		
+		try {
+			loader.get().whenComplete((value, e) -> {
+				this.inFlight.remove(flightKey, leader);
+				if (e != null) {
+					leader.completeExceptionally(unwrap(e));
+				}
+				else {
+					leader.complete(value);
+				}
+			});
+		}
+		catch (RuntimeException e) {
+			this.inFlight.remove(flightKey, leader);
+			leader.completeExceptionally(e);
+		}
+		return leader;
+	}
+	
+	private Counter coalescedCounter(final String operation) {
+		return Counter.builder("catalog.reads.coalesced")
+				.description("Reads served by joining an identical in-flight load")
+				.tag("operation", operation)
+				.register(this.meterRegistry);
+	}
+	
+	private <T> CompletableFuture<T> follow(final CompletableFuture<T> shared, final String flightKey) {
+		return shared.copy()
+				.orTimeout(this.timeout.toMillis(), TimeUnit.MILLISECONDS)
+				.handle((value, e) -> {
+					if (e == null) {
+						return value;
+					}
+					final Throwable cause = unwrap(e);
+					if (cause instanceof TimeoutException) {
+						throw new ServiceUnavailableException("Timed out waiting for in-flight load of " + flightKey);
+					}
+					throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+				});
+	}
+	
+	private static Throwable unwrap(final Throwable e) {
+		return (e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null
+				? e.getCause()
+				: e;
+	}
+	
+	
+	
+}
@@ -0,0 +1,44 @@
+package com.selimhorri.app.concurrent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+// The project still compiles for Java 11, so the JDK 21 virtual thread API is reached reflectively
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class VirtualThreads {
+	
+	public static boolean isSupported() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		}
+		catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+	
+	public static ExecutorService newThreadPerTaskExecutor(final String namePrefix) {
+		try {
+			final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+			final ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+			final Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+		}
+		catch (ClassNotFoundException | NoSuchMethodException e) {
+			throw new IllegalStateException("Virtual threads require a JDK 21+ runtime, current runtime is "
+					+ System.getProperty("java.version"), e);
+		}
+		catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("Unable to create a virtual thread executor", e);
+		}
+	}
+	
+}
@@ -0,0 +1,80 @@
+package com.selimhorri.app.config.datasource;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DataSourceProperties.class, ReadReplicaProperties.class})
+@Slf4j
+public class ReadReplicaDataSourceConfig {
+	
+	// Same binding Boot applies to its own pool, so spring.datasource.hikari.* keeps working
+	@Bean
+	@ConfigurationProperties(prefix = "spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(final DataSourceProperties dataSourceProperties) {
+		return dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+	}
+	
+	@Bean(destroyMethod = "stop")
+	public ReplicaLagMonitor replicaLagMonitor(final ReadReplicaProperties properties, final MeterRegistry meterRegistry) {
+		final Map<String, DataSource> replicas = new LinkedHashMap<>();
+		final List<ReadReplicaProperties.Replica> configured = properties.getReplicas();
+		for (int i = 0; i < configured.size(); i++) {
+			final String key = "replica-" + i;
+			final ReadReplicaProperties.Replica replica = configured.get(i);
+			// Own connection, the replica pool itself is read-only
+			if (properties.isMigrateReplicas())
+				Flyway.configure()
+						.dataSource(replica.getUrl(), replica.getUsername(), replica.getPassword())
+						.load()
+						.migrate();
+			replicas.put(key, this.createReplica(key, replica));
+		}
+		log.info("*** Routing read-only transactions to {} replica(s) *", replicas.size());
+		final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicas, properties.getLagQuery(),
+				properties.getLagColumn(), properties.getMaxLag(), meterRegistry);
+		monitor.start(properties.getLagCheckInterval());
+		return monitor;
+	}
+	
+	@Bean
+	@Primary
+	public DataSource dataSource(final HikariDataSource primaryDataSource, final ReplicaLagMonitor replicaLagMonitor) {
+		return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryDataSource, replicaLagMonitor));
+	}
+	
+	private HikariDataSource createReplica(final String key, final ReadReplicaProperties.Replica replica) {
+		final HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName(key);
+		dataSource.setJdbcUrl(replica.getUrl());
+		dataSource.setUsername(replica.getUsername());
+		dataSource.setPassword(replica.getPassword());
+		dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+	
+	
+	
+}
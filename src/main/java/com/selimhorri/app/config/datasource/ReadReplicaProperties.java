@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.datasource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReadReplicaProperties {
+	
+	private boolean enabled;
+	private List<Replica> replicas = new ArrayList<>();
+	
+	// Replicas lagging further behind than this are skipped until they catch up
+	private Duration maxLag = Duration.ofSeconds(5);
+	private Duration lagCheckInterval = Duration.ofSeconds(5);
+	
+	// Blank means liveness only (no lag information), e.g. "SHOW SLAVE STATUS" on MySQL
+	private String lagQuery;
+	private String lagColumn = "Seconds_Behind_Master";
+	
+	// Local H2 replicas start empty, so apply the same Flyway migrations to them
+	private boolean migrateReplicas;
+	
+	@Data
+	public static class Replica {
+		private String url;
+		private String username;
+		private String password;
+		private int maximumPoolSize = 10;
+	}
+	
+	
+	
+}
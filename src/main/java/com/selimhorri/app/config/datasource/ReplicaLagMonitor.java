@@ -0,0 +1,122 @@
+package com.selimhorri.app.config.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ReplicaLagMonitor {
+	
+	private final Map<String, DataSource> replicas;
+	private final String lagQuery;
+	private final String lagColumn;
+	private final double maxLagSeconds;
+	private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler =
+			Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("replica-lag-"));
+	
+	public ReplicaLagMonitor(final Map<String, DataSource> replicas, final String lagQuery,
+			final String lagColumn, final Duration maxLag, final MeterRegistry meterRegistry) {
+		this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+		this.lagQuery = lagQuery;
+		this.lagColumn = lagColumn;
+		this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+		this.replicas.keySet().forEach(key -> {
+			Gauge.builder("db.replica.lag", () -> this.lagSeconds.getOrDefault(key, Double.NaN))
+					.description("Last measured replication lag, NaN when the replica is unreachable")
+					.baseUnit("seconds")
+					.tag("replica", key)
+					.register(meterRegistry);
+			Gauge.builder("db.replica.healthy", () -> this.isHealthy(key) ? 1 : 0)
+					.tag("replica", key)
+					.register(meterRegistry);
+		});
+	}
+	
+	public Map<String, DataSource> getReplicas() {
+		return this.replicas;
+	}
+	
+	// Unknown counts as unhealthy, reads stay on the primary until the first successful check
+	public boolean isHealthy(final String key) {
+		final Double lag = this.lagSeconds.get(key);
+		return lag != null && lag <= this.maxLagSeconds;
+	}
+	
+	public void start(final Duration interval) {
+		this.checkNow();
+		this.scheduler.scheduleWithFixedDelay(this::checkNow,
+				interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+	
+	public void stop() {
+		this.scheduler.shutdownNow();
+		this.replicas.values().stream()
+				.filter(AutoCloseable.class::isInstance)
+				.map(AutoCloseable.class::cast)
+				.forEach(closeable -> {
+					try {
+						closeable.close();
+					}
+					catch (Exception e) {
+						log.warn("*** Could not close replica pool *", e);
+					}
+				});
+	}
+	
+	public void checkNow() {
+		this.replicas.forEach((key, dataSource) -> {
+			try {
+				final double lag = this.measureLag(dataSource);
+				final boolean wasHealthy = this.isHealthy(key);
+				this.lagSeconds.put(key, lag);
+				if (wasHealthy && !this.isHealthy(key))
+					log.warn("*** Replica {} lagging {}s behind, reads fall back to primary *", key, lag);
+			}
+			catch (SQLException | RuntimeException e) {
+				if (this.lagSeconds.remove(key) != null)
+					log.warn("*** Replica {} unreachable, reads fall back to primary: {} *", key, e.getMessage());
+			}
+		});
+	}
+	
+	private double measureLag(final DataSource dataSource) throws SQLException {
+		try (final Connection connection = dataSource.getConnection()) {
+			if (this.lagQuery == null || this.lagQuery.isBlank()) {
+				if (!connection.isValid(1))
+					throw new SQLException("Connection is not valid");
+				return 0;
+			}
+			try (final Statement statement = connection.createStatement();
+					final ResultSet resultSet = statement.executeQuery(this.lagQuery)) {
+				// No row or a null lag means replication is not running
+				if (!resultSet.next())
+					throw new SQLException("Lag query returned no row");
+				final Object lag = resultSet.getObject(this.lagColumn);
+				if (!(lag instanceof Number))
+					throw new SQLException("Replication is not running");
+				return ((Number) lag).doubleValue();
+			}
+		}
+	}
+	
+	
+	
+}
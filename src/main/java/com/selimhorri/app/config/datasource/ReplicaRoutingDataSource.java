@@ -0,0 +1,49 @@
+package com.selimhorri.app.config.datasource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only bound
+// after the transaction manager has asked for its connection
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+	
+	static final String PRIMARY = "primary";
+	
+	private final List<String> replicaKeys;
+	private final ReplicaLagMonitor lagMonitor;
+	private final AtomicInteger next = new AtomicInteger();
+	
+	public ReplicaRoutingDataSource(final DataSource primary, final ReplicaLagMonitor lagMonitor) {
+		final Map<Object, Object> targets = new HashMap<>(lagMonitor.getReplicas());
+		targets.put(PRIMARY, primary);
+		this.setTargetDataSources(targets);
+		this.setDefaultTargetDataSource(primary);
+		this.replicaKeys = List.copyOf(lagMonitor.getReplicas().keySet());
+		this.lagMonitor = lagMonitor;
+		this.afterPropertiesSet();
+	}
+	
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+			return PRIMARY;
+		// Round robin over replicas that are within the lag budget
+		final int size = this.replicaKeys.size();
+		for (int i = 0; i < size; i++) {
+			final String key = this.replicaKeys.get(Math.floorMod(this.next.getAndIncrement(), size));
+			if (this.lagMonitor.isHealthy(key))
+				return key;
+		}
+		return PRIMARY;
+	}
+	
+	
+	
+}
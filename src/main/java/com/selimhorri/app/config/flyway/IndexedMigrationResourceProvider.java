@@ -0,0 +1,118 @@
+package com.selimhorri.app.config.flyway;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.Location;
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.resource.LoadableResource;
+
+// Migrations listed, one file name per line, in <location>/migrations.idx for every classpath location.
+// IndexedMigrationResourceProviderTest keeps the index of db/migration in line with the scripts
+public class IndexedMigrationResourceProvider implements ResourceProvider {
+	
+	public static final String INDEX = "migrations.idx";
+	
+	private final List<LoadableResource> resources = new ArrayList<>();
+	
+	public IndexedMigrationResourceProvider(final ClassLoader classLoader, final Charset encoding, final Location[] locations) {
+		for (final Location location : locations)
+			if (location.isClassPath())
+				for (final String filename : readIndex(classLoader, location.getPath()))
+					this.resources.add(new IndexedResource(classLoader, encoding, location.getPath(), filename));
+	}
+	
+	public int size() {
+		return this.resources.size();
+	}
+	
+	@Override
+	public LoadableResource getResource(final String name) {
+		return this.resources.stream()
+				.filter(resource -> resource.getRelativePath().equals(name) || resource.getAbsolutePath().equals(name))
+				.findFirst()
+				.orElse(null);
+	}
+	
+	@Override
+	public Collection<LoadableResource> getResources(final String prefix, final String[] suffixes) {
+		return this.resources.stream()
+				.filter(resource -> resource.getFilename().startsWith(prefix)
+						&& Arrays.stream(suffixes).anyMatch(suffix -> resource.getFilename().endsWith(suffix)))
+				.collect(Collectors.toList());
+	}
+	
+	static List<String> readIndex(final ClassLoader classLoader, final String path) {
+		final InputStream index = classLoader.getResourceAsStream(path + "/" + INDEX);
+		if (index == null)
+			return List.of();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))) {
+			return reader.lines()
+					.map(String::trim)
+					.filter(line -> !line.isEmpty() && !line.startsWith("#"))
+					.collect(Collectors.toList());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Unable to read " + path + "/" + INDEX, e);
+		}
+	}
+	
+	private static final class IndexedResource extends LoadableResource {
+		
+		private final ClassLoader classLoader;
+		private final Charset encoding;
+		private final String path;
+		private final String filename;
+		
+		private IndexedResource(final ClassLoader classLoader, final Charset encoding, final String location, final String filename) {
+			this.classLoader = classLoader;
+			this.encoding = encoding;
+			this.path = location + "/" + filename;
+			this.filename = filename;
+		}
+		
+		@Override
+		public Reader read() {
+			final InputStream content = this.classLoader.getResourceAsStream(this.path);
+			if (content == null)
+				throw new FlywayException("Migration " + this.path + " is listed in " + INDEX + " but not in the image");
+			return new InputStreamReader(content, this.encoding);
+		}
+		
+		@Override
+		public String getAbsolutePath() {
+			return this.path;
+		}
+		
+		@Override
+		public String getAbsolutePathOnDisk() {
+			return this.path;
+		}
+		
+		@Override
+		public String getFilename() {
+			return this.filename;
+		}
+		
+		@Override
+		public String getRelativePath() {
+			return this.filename;
+		}
+		
+	}
+	
+	
+	
+}
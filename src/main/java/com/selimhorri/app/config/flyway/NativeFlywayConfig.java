@@ -0,0 +1,31 @@
+package com.selimhorri.app.config.flyway;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import lombok.extern.slf4j.Slf4j;
+
+// A native image can't list classpath directories, so Flyway would find no migrations there:
+// serve them from the migrations.idx index instead. No effect on the JVM
+@Configuration
+@Slf4j
+public class NativeFlywayConfig {
+	
+	@Bean
+	public FlywayConfigurationCustomizer nativeMigrationResourceCustomizer() {
+		return configuration -> {
+			if (!NativeDetector.inNativeImage())
+				return;
+			final IndexedMigrationResourceProvider resourceProvider = new IndexedMigrationResourceProvider(
+					configuration.getClassLoader(), configuration.getEncoding(), configuration.getLocations());
+			log.info("*** Native image, {} Flyway migration(s) from {} *",
+					resourceProvider.size(), IndexedMigrationResourceProvider.INDEX);
+			configuration.resourceProvider(resourceProvider);
+		};
+	}
+	
+	
+	
+}
@@ -0,0 +1,39 @@
+package com.selimhorri.app.config.mapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.selimhorri.app.helper.MoneyHelper;
+
+// Reads a decimal amount (999.99) into minor units; null becomes MoneyHelper.NO_PRICE
+public class MinorUnitsJsonDeserializer extends StdDeserializer<Long> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public MinorUnitsJsonDeserializer() {
+		super(Long.class);
+	}
+	
+	@Override
+	public Long deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+		// Same leniency as the former Double field, e.g. "999.99" as a string
+		final BigDecimal amount = context.readValue(parser, BigDecimal.class);
+		try {
+			return MoneyHelper.toMinorUnits(amount);
+		}
+		catch (ArithmeticException e) {
+			return (Long) context.handleWeirdNumberValue(Long.class, amount, "price out of range");
+		}
+	}
+	
+	@Override
+	public Long getNullValue(final DeserializationContext context) {
+		return MoneyHelper.NO_PRICE;
+	}
+	
+	
+	
+}
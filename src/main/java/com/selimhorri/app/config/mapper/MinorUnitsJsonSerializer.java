@@ -0,0 +1,29 @@
+package com.selimhorri.app.config.mapper;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.selimhorri.app.helper.MoneyHelper;
+
+// Keeps the wire format a decimal amount (999.99) while the DTO holds minor units (99999)
+public class MinorUnitsJsonSerializer extends StdSerializer<Long> {
+	
+	private static final long serialVersionUID = 1L;
+	
+	public MinorUnitsJsonSerializer() {
+		super(Long.class);
+	}
+	
+	@Override
+	public void serialize(final Long minorUnits, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
+		if (minorUnits == null || minorUnits == MoneyHelper.NO_PRICE)
+			generator.writeNull();
+		else
+			generator.writeNumber(MoneyHelper.toDecimal(minorUnits));
+	}
+	
+	
+	
+}
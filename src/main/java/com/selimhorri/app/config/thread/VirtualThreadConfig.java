@@ -0,0 +1,51 @@
+package com.selimhorri.app.config.thread;
+
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+import com.selimhorri.app.concurrent.VirtualThreads;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Configuration
+@Profile("virtual-threads")
+@EnableAsync
+@Slf4j
+public class VirtualThreadConfig {
+	
+	private final ExecutorService virtualThreadExecutor = VirtualThreads.newThreadPerTaskExecutor("virtual-");
+	
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+		log.info("*** Tomcat request handling on virtual threads *");
+		return protocolHandler -> protocolHandler.setExecutor(this.virtualThreadExecutor);
+	}
+	
+	// Same names as Boot's default executor, so @Async and MVC async processing both pick it up
+	@Bean(name = {
+			TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+			AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+	})
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(this.virtualThreadExecutor);
+	}
+	
+	@PreDestroy
+	void shutdown() {
+		this.virtualThreadExecutor.shutdown();
+	}
+	
+	
+	
+}
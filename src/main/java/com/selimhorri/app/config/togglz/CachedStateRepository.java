@@ -0,0 +1,109 @@
+package com.selimhorri.app.config.togglz;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.StateRepository;
+import org.togglz.core.util.NamedFeature;
+
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Toggle checks read an immutable in-memory snapshot (one volatile read, one map lookup);
+// the persistent repository is only hit on flips and when another node bumped togglz_version
+@Slf4j
+public class CachedStateRepository implements StateRepository {
+	
+	private static final String SELECT_VERSION = "SELECT version FROM togglz_version WHERE id = 1";
+	private static final String BUMP_VERSION = "UPDATE togglz_version SET version = version + 1 WHERE id = 1";
+	private static final String SELECT_FEATURE_NAMES = "SELECT FEATURE_NAME FROM togglz";
+	
+	private final StateRepository delegate;
+	private final JdbcTemplate jdbcTemplate;
+	private final ScheduledExecutorService scheduler =
+			Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("togglz-poll-"));
+	private volatile Snapshot snapshot = new Snapshot(-1L, Map.of());
+	
+	public CachedStateRepository(final StateRepository delegate, final DataSource dataSource) {
+		this.delegate = delegate;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+	
+	public void start(final Duration pollInterval) {
+		this.poll();
+		this.scheduler.scheduleWithFixedDelay(this::poll,
+				pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+	
+	public void stop() {
+		this.scheduler.shutdownNow();
+	}
+	
+	// Returns the shared cached instance: callers that want to change it must copy() it first
+	@Override
+	public FeatureState getFeatureState(final Feature feature) {
+		return this.snapshot.states.get(feature.name());
+	}
+	
+	@Override
+	public synchronized void setFeatureState(final FeatureState featureState) {
+		this.delegate.setFeatureState(featureState);
+		this.jdbcTemplate.update(BUMP_VERSION);
+		log.info("*** Feature {} set to {}, version bumped *", featureState.getFeature().name(), featureState.isEnabled());
+		this.reload();
+	}
+	
+	public long getVersion() {
+		return this.snapshot.version;
+	}
+	
+	public void poll() {
+		try {
+			final Long version = this.jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+			if (version != null && version != this.snapshot.version)
+				this.reload();
+		}
+		catch (RuntimeException e) {
+			// Keep serving the last snapshot, e.g. before Flyway created the tables or while the DB is down
+			log.warn("*** Togglz state poll failed, keeping version {}: {} *", this.snapshot.version, e.getMessage());
+		}
+	}
+	
+	private synchronized void reload() {
+		// Version first: a flip racing with this reload leaves an older version behind and gets picked up next poll
+		final long version = this.jdbcTemplate.queryForObject(SELECT_VERSION, Long.class);
+		final Map<String, FeatureState> states = new HashMap<>();
+		for (final String name : this.jdbcTemplate.queryForList(SELECT_FEATURE_NAMES, String.class)) {
+			final FeatureState state = this.delegate.getFeatureState(new NamedFeature(name));
+			if (state != null)
+				states.put(name, state);
+		}
+		this.snapshot = new Snapshot(version, Map.copyOf(states));
+		log.info("*** Togglz states reloaded at version {} *", version);
+	}
+	
+	private static final class Snapshot {
+		
+		private final long version;
+		private final Map<String, FeatureState> states;
+		
+		private Snapshot(final long version, final Map<String, FeatureState> states) {
+			this.version = version;
+			this.states = states;
+		}
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,36 @@
+package com.selimhorri.app.config.togglz;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.togglz.core.repository.jdbc.JDBCStateRepository;
+
+// Replaces Togglz' in-memory default, toggles defined under togglz.features keep their defaults
+// until a state is stored
+@Configuration
+@ConditionalOnProperty(prefix = "app.togglz", name = "jdbc-state", havingValue = "true", matchIfMissing = true)
+public class TogglzStateConfig {
+	
+	@Bean(destroyMethod = "stop")
+	public CachedStateRepository stateRepository(
+			final DataSource dataSource,
+			@Value("${app.togglz.poll-interval:2s}") final Duration pollInterval) {
+		// Table comes from Flyway (V9__create_togglz_tables.sql)
+		final CachedStateRepository stateRepository = new CachedStateRepository(
+				JDBCStateRepository.newBuilder(dataSource)
+						.tableName("togglz")
+						.createTable(false)
+						.build(),
+				dataSource);
+		stateRepository.start(pollInterval);
+		return stateRepository;
+	}
+	
+	
+	
+}
@@ -0,0 +1,212 @@
+package com.selimhorri.app.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.selimhorri.app.helper.MoneyHelper;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Deterministic synthetic catalog for scale tests and local profiling: a category tree whose level sizes
+// grow geometrically, products spread over the leaves with Zipf-distributed sizes, unique SKUs and
+// log-normal prices. Everything is drawn from one Random in a fixed order, so a seed always yields the
+// same rows. Plain batched JDBC on one connection, committed per batch; on MySQL add
+// rewriteBatchedStatements=true to the JDBC URL or every row is a round trip.
+@Slf4j
+public class CatalogGenerator {
+	
+	private static final String INSERT_CATEGORY =
+			"INSERT INTO categories (parent_category_id, category_title, image_url) VALUES (?, ?, ?)";
+	private static final String INSERT_PRODUCT = "INSERT INTO products "
+			+ "(category_id, product_title, image_url, sku, price_unit, quantity) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final long MIN_PRICE = 99L;
+	private static final long MAX_PRICE = 9_999_999L;
+	private static final double OUT_OF_STOCK = 0.08;
+	private static final double MEAN_STOCK = 40.0;
+	private static final String[] ADJECTIVES = {"Classic", "Compact", "Deluxe", "Eco", "Essential", "Family",
+			"Smart", "Outdoor", "Premium", "Pro", "Portable", "Vintage", "Wireless", "Urban", "Kids", "Travel"};
+	private static final String[] NOUNS = {"Audio", "Books", "Cameras", "Cookware", "Furniture", "Games", "Garden",
+			"Lighting", "Laptops", "Phones", "Shoes", "Sports", "Storage", "Tools", "Toys", "Watches"};
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	public CatalogGenerator(final DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+	
+	public GeneratedCatalog generate(final CatalogGeneratorSettings settings) {
+		if (settings.getCategoryDepth() < 1 || settings.getCategories() < settings.getCategoryDepth())
+			throw new IllegalArgumentException("Need at least one category per level");
+		if (settings.getProducts() < 1 || settings.getBatchSize() < 1)
+			throw new IllegalArgumentException("Products and batch size must be positive");
+		return this.jdbcTemplate.execute((ConnectionCallback<GeneratedCatalog>) connection -> {
+			final boolean autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+			try {
+				return this.generate(connection, settings);
+			}
+			catch (SQLException | RuntimeException e) {
+				connection.rollback();
+				throw e;
+			}
+			finally {
+				connection.setAutoCommit(autoCommit);
+			}
+		});
+	}
+	
+	private GeneratedCatalog generate(final Connection connection, final CatalogGeneratorSettings settings) throws SQLException {
+		final long start = System.nanoTime();
+		final Random random = new Random(settings.getSeed());
+		
+		final List<Integer> categoryIds = new ArrayList<>(settings.getCategories());
+		final Set<Integer> parents = new HashSet<>();
+		List<Integer> level = List.of();
+		for (final int levelSize : levelSizes(settings.getCategories(), settings.getCategoryDepth())) {
+			final List<Integer> levelParents = level;
+			final int[] parentIds = new int[levelSize];
+			for (int i = 0; i < levelSize; i++) {
+				parentIds[i] = levelParents.isEmpty() ? 0 : levelParents.get(random.nextInt(levelParents.size()));
+				parents.add(parentIds[i]);
+			}
+			level = this.insertCategories(connection, parentIds, random, settings.getBatchSize());
+			categoryIds.addAll(level);
+		}
+		
+		// Childless categories hold the products, in a random order that then decides their Zipf rank
+		final List<Integer> leaves = new ArrayList<>(categoryIds.size());
+		for (final Integer categoryId : categoryIds)
+			if (!parents.contains(categoryId))
+				leaves.add(categoryId);
+		Collections.shuffle(leaves, random);
+		final double[] cumulative = new double[leaves.size()];
+		double total = 0.0;
+		for (int rank = 0; rank < cumulative.length; rank++) {
+			total += 1.0 / Math.pow(rank + 1, settings.getZipfExponent());
+			cumulative[rank] = total;
+		}
+		
+		final int firstProductId = this.maxId(connection, "SELECT COALESCE(MAX(product_id), 0) FROM products") + 1;
+		try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT)) {
+			for (int n = 0; n < settings.getProducts(); n++) {
+				int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+				rank = rank >= 0 ? rank : Math.min(-rank - 1, cumulative.length - 1);
+				ps.setInt(1, leaves.get(rank));
+				ps.setString(2, title(random) + " " + n);
+				ps.setString(3, "https://example.com/products/" + settings.getSkuPrefix() + "/" + n + ".jpg");
+				ps.setString(4, String.format("%s-%09d", settings.getSkuPrefix(), n));
+				ps.setBigDecimal(5, MoneyHelper.toDecimal(price(random, settings)));
+				ps.setInt(6, random.nextDouble() < OUT_OF_STOCK
+						? 0 : 1 + (int) Math.min(10_000, -MEAN_STOCK * Math.log(1.0 - random.nextDouble())));
+				ps.addBatch();
+				if ((n + 1) % settings.getBatchSize() == 0)
+					flush(connection, ps);
+			}
+			flush(connection, ps);
+		}
+		final int lastProductId = this.maxId(connection, "SELECT MAX(product_id) FROM products");
+		
+		final GeneratedCatalog catalog = new GeneratedCatalog(firstProductId, lastProductId, categoryIds, leaves,
+				(System.nanoTime() - start) / 1_000_000);
+		log.info("*** Generated {} products over {} categories ({} leaves) in {} ms, {} rows/min *",
+				settings.getProducts(), categoryIds.size(), leaves.size(), catalog.getElapsedMillis(),
+				(settings.getProducts() + categoryIds.size()) * 60_000L / Math.max(1L, catalog.getElapsedMillis()));
+		return catalog;
+	}
+	
+	// Ids of the inserted categories, read back in insertion order
+	private List<Integer> insertCategories(final Connection connection, final int[] parentIds, final Random random,
+			final int batchSize) throws SQLException {
+		final int lastId = this.maxId(connection, "SELECT COALESCE(MAX(category_id), 0) FROM categories");
+		try (PreparedStatement ps = connection.prepareStatement(INSERT_CATEGORY)) {
+			for (int i = 0; i < parentIds.length; i++) {
+				if (parentIds[i] == 0)
+					ps.setNull(1, Types.INTEGER);
+				else
+					ps.setInt(1, parentIds[i]);
+				ps.setString(2, title(random));
+				ps.setString(3, "https://example.com/categories/" + (lastId + i + 1) + ".jpg");
+				ps.addBatch();
+				if ((i + 1) % batchSize == 0)
+					ps.executeBatch();
+			}
+			flush(connection, ps);
+		}
+		final List<Integer> ids = new ArrayList<>(parentIds.length);
+		try (PreparedStatement ps = connection.prepareStatement(
+				"SELECT category_id FROM categories WHERE category_id > ? ORDER BY category_id")) {
+			ps.setInt(1, lastId);
+			try (ResultSet rs = ps.executeQuery()) {
+				while (rs.next())
+					ids.add(rs.getInt(1));
+			}
+		}
+		return ids;
+	}
+	
+	private int maxId(final Connection connection, final String sql) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
+	
+	private static void flush(final Connection connection, final PreparedStatement ps) throws SQLException {
+		ps.executeBatch();
+		connection.commit();
+	}
+	
+	// Level k gets ~f^k categories, f chosen so the levels add up to the requested total
+	static int[] levelSizes(final int categories, final int depth) {
+		double low = 1.0;
+		double high = categories;
+		for (int i = 0; i < 100; i++) {
+			final double fanout = (low + high) / 2;
+			double sum = 0.0;
+			for (int k = 1; k <= depth; k++)
+				sum += Math.pow(fanout, k);
+			if (sum > categories)
+				high = fanout;
+			else
+				low = fanout;
+		}
+		final int[] sizes = new int[depth];
+		int remaining = categories;
+		for (int k = 0; k < depth - 1; k++) {
+			// Keep at least one category for each level below
+			sizes[k] = Math.max(1, Math.min(remaining - (depth - 1 - k), (int) Math.round(Math.pow(low, k + 1))));
+			remaining -= sizes[k];
+		}
+		sizes[depth - 1] = remaining;
+		return sizes;
+	}
+	
+	// Log-normal around the median, ending in .99
+	private static long price(final Random random, final CatalogGeneratorSettings settings) {
+		final double price = settings.getMedianPrice() * Math.exp(settings.getPriceSigma() * random.nextGaussian());
+		final long whole = (long) (price / 100.0) * 100L;
+		return Math.max(MIN_PRICE, Math.min(MAX_PRICE, whole + 99L));
+	}
+	
+	private static String title(final Random random) {
+		return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+	}
+	
+	
+	
+}
@@ -0,0 +1,56 @@
+package com.selimhorri.app.datagen;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Local profiling: loads a synthetic catalog on startup, after Flyway and before the app reports ready,
+// e.g. --app.catalog-generator.enabled=true --app.catalog-generator.products=5000000
+@Component
+@ConditionalOnProperty(prefix = "app.catalog-generator", name = "enabled", havingValue = "true")
+// Before the startup warm-up, which should see the generated catalog
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class CatalogGeneratorRunner implements ApplicationRunner {
+	
+	private final CatalogGenerator catalogGenerator;
+	private final CatalogGeneratorSettings settings;
+	
+	public CatalogGeneratorRunner(
+			final DataSource dataSource,
+			@Value("${app.catalog-generator.seed:42}") final long seed,
+			@Value("${app.catalog-generator.products:1000000}") final int products,
+			@Value("${app.catalog-generator.categories:2000}") final int categories,
+			@Value("${app.catalog-generator.category-depth:4}") final int categoryDepth,
+			@Value("${app.catalog-generator.zipf-exponent:1.1}") final double zipfExponent,
+			@Value("${app.catalog-generator.sku-prefix:GEN}") final String skuPrefix,
+			@Value("${app.catalog-generator.batch-size:1000}") final int batchSize) {
+		this.catalogGenerator = new CatalogGenerator(dataSource);
+		this.settings = CatalogGeneratorSettings.builder()
+				.seed(seed)
+				.products(products)
+				.categories(categories)
+				.categoryDepth(categoryDepth)
+				.zipfExponent(zipfExponent)
+				.skuPrefix(skuPrefix)
+				.batchSize(batchSize)
+				.build();
+	}
+	
+	@Override
+	public void run(final ApplicationArguments args) {
+		log.info("*** Generating synthetic catalog, {} *", this.settings);
+		this.catalogGenerator.generate(this.settings);
+	}
+	
+	
+	
+}
@@ -0,0 +1,35 @@
+package com.selimhorri.app.datagen;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+// Same settings and seed, same catalog; see CatalogGenerator
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public final class CatalogGeneratorSettings {
+	
+	@Builder.Default
+	private final long seed = 42L;
+	@Builder.Default
+	private final int products = 1_000_000;
+	@Builder.Default
+	private final int categories = 2_000;
+	// Levels of parent_category_id, 1 = flat
+	@Builder.Default
+	private final int categoryDepth = 4;
+	// Leaf category sizes follow Zipf(s): the k-th largest gets ~1/k^s of the products
+	@Builder.Default
+	private final double zipfExponent = 1.1;
+	// Log-normal prices around the median, in minor units (see MoneyHelper)
+	@Builder.Default
+	private final long medianPrice = 2_500L;
+	@Builder.Default
+	private final double priceSigma = 1.0;
+	@Builder.Default
+	private final String skuPrefix = "GEN";
+	@Builder.Default
+	private final int batchSize = 1_000;
+	
+}
@@ -0,0 +1,22 @@
+package com.selimhorri.app.datagen;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString(exclude = {"categoryIds", "leafCategoryIds"})
+@RequiredArgsConstructor
+public final class GeneratedCatalog {
+	
+	// Generated product ids, contiguous as long as nothing else inserts while generating
+	private final int firstProductId;
+	private final int lastProductId;
+	private final List<Integer> categoryIds;
+	// Categories holding the products, largest first
+	private final List<Integer> leafCategoryIds;
+	private final long elapsedMillis;
+	
+}
@@ -0,0 +1,49 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "catalog_changes")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class CatalogChange implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "change_id", unique = true, nullable = false, updatable = false)
+	private Long changeId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "entity_type", nullable = false, updatable = false)
+	private CatalogEntityType entityType;
+	
+	@Column(name = "entity_id", nullable = false, updatable = false)
+	private Integer entityId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "change_type", nullable = false, updatable = false)
+	private CatalogChangeType changeType;
+	
+	@Column(name = "changed_at", nullable = false, updatable = false)
+	private Instant changedAt;
+	
+}
@@ -0,0 +1,8 @@
+package com.selimhorri.app.domain;
+
+public enum CatalogEntityType {
+	
+	PRODUCT,
+	CATEGORY;
+	
+}
@@ -0,0 +1,26 @@
+package com.selimhorri.app.domain;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.selimhorri.app.helper.MoneyHelper;
+
+// DECIMAL price columns <-> long minor units
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+	
+	@Override
+	public BigDecimal convertToDatabaseColumn(final Long minorUnits) {
+		return minorUnits == null ? null : MoneyHelper.toDecimal(minorUnits);
+	}
+	
+	@Override
+	public Long convertToEntityAttribute(final BigDecimal amount) {
+		return amount == null ? null : MoneyHelper.toMinorUnits(amount);
+	}
+	
+	
+	
+}
@@ -0,0 +1,65 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "pricing_rules")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class PricingRule implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "rule_id", unique = true, nullable = false, updatable = false)
+	private Integer ruleId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "scope", nullable = false)
+	private PricingRuleScope scope;
+	
+	// Set for CATEGORY rules
+	@Column(name = "category_id")
+	private Integer categoryId;
+	
+	// Set for SKU rules
+	@Column(name = "sku")
+	private String sku;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "adjustment_type", nullable = false)
+	private PricingAdjustmentType adjustmentType;
+	
+	// Percent off for PERCENTAGE, amount off for FIXED
+	@Column(name = "amount", nullable = false)
+	private BigDecimal amount;
+	
+	@Column(name = "starts_at")
+	private Instant startsAt;
+	
+	@Column(name = "ends_at")
+	private Instant endsAt;
+	
+	@Column(name = "updated_at", insertable = false, updatable = false)
+	private Instant updatedAt;
+	
+}
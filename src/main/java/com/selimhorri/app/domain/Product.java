@@ -3,6 +3,7 @@ package com.selimhorri.app.domain;
 import java.io.Serializable;
 
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
@@ -43,12 +44,34 @@ public final class Product extends AbstractMappedEntity implements Serializable
 	@Column(unique = true)
 	private String sku;
 	
-	@Column(name = "price_unit", columnDefinition = "decimal")
-	private Double priceUnit;
+	// Minor units (cents)
+	@Column(name = "price_unit", columnDefinition = "decimal", nullable = false)
+	@Convert(converter = MinorUnitsConverter.class)
+	private long priceUnit;
 	
 	@Column(name = "quantity")
 	private Integer quantity;
 	
+	// Written by EffectivePriceMaterializer only, never through the entity (except the generation below)
+	@Column(name = "effective_price", columnDefinition = "decimal", insertable = false, updatable = false)
+	@Convert(converter = MinorUnitsConverter.class)
+	private Long effectivePrice;
+	
+	@Column(name = "effective_price_base", columnDefinition = "decimal", insertable = false, updatable = false)
+	@Convert(converter = MinorUnitsConverter.class)
+	private Long effectivePriceBase;
+	
+	@Column(name = "discount_source", insertable = false, updatable = false)
+	private String discountSource;
+	
+	// Left null by the mappers, so every save through the entity invalidates the materialized price
+	@Column(name = "effective_price_generation")
+	private Long effectivePriceGeneration;
+	
+	// Epoch millis
+	@Column(name = "effective_price_valid_until", insertable = false, updatable = false)
+	private Long effectivePriceValidUntil;
+	
 	@ManyToOne(fetch = FetchType.EAGER)
 	@JoinColumn(name = "category_id")
 	private Category category;
@@ -5,6 +5,11 @@ import java.io.Serializable;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.selimhorri.app.config.mapper.MinorUnitsJsonDeserializer;
+import com.selimhorri.app.config.mapper.MinorUnitsJsonSerializer;
+import com.selimhorri.app.helper.MoneyHelper;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,7 +27,11 @@ public class ProductDto implements Serializable {
 	private String productTitle;
 	private String imageUrl;
 	private String sku;
-	private Double priceUnit;
+	// Minor units (cents), a decimal amount on the wire
+	@Builder.Default
+	@JsonSerialize(using = MinorUnitsJsonSerializer.class)
+	@JsonDeserialize(using = MinorUnitsJsonDeserializer.class)
+	private long priceUnit = MoneyHelper.NO_PRICE;
 	private Integer quantity;
 	
 	@JsonProperty("category")
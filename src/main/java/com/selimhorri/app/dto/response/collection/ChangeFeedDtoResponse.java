@@ -0,0 +1,22 @@
+package com.selimhorri.app.dto.response.collection;
+
+import java.util.Collection;
+
+import com.selimhorri.app.dto.CatalogChangeDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ChangeFeedDtoResponse {
+	
+	private Collection<CatalogChangeDto> collection;
+	private Long nextSince;
+	private boolean hasMore;
+	
+}
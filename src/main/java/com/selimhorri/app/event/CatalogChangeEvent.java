@@ -0,0 +1,16 @@
+package com.selimhorri.app.event;
+
+import com.selimhorri.app.dto.CatalogChangeDto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class CatalogChangeEvent {
+	
+	private final CatalogChangeDto change;
+	
+}
@@ -0,0 +1,16 @@
+package com.selimhorri.app.event;
+
+import com.selimhorri.app.pricing.PricingRules;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class PricingRulesChangedEvent {
+	
+	private final PricingRules pricingRules;
+	
+}
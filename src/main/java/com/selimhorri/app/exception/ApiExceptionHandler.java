@@ -5,6 +5,7 @@ import java.time.ZonedDateTime;
 
 import javax.persistence.EntityNotFoundException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -16,6 +17,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -82,4 +84,27 @@ public class ApiExceptionHandler {
 				badRequest);
 	}
 
+	@ExceptionHandler(value = {
+			ServiceUnavailableException.class
+	})
+	public ResponseEntity<ExceptionMsg> handleServiceUnavailableException(final ServiceUnavailableException e) {
+
+		log.info("**ApiExceptionHandler controller, handle service unavailable*\n");
+		final var serviceUnavailable = HttpStatus.SERVICE_UNAVAILABLE;
+		final var headers = new HttpHeaders();
+		if (e.getRetryAfter() != null)
+			headers.set(HttpHeaders.RETRY_AFTER,
+					String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)));
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(serviceUnavailable)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				headers,
+				serviceUnavailable);
+	}
+
 }
@@ -0,0 +1,49 @@
+package com.selimhorri.app.exception.wrapper;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	// Hint for the Retry-After header, null when unknown
+	private Duration retryAfter;
+	
+	public ServiceUnavailableException() {
+		super();
+	}
+	
+	public ServiceUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+	
+	public ServiceUnavailableException(String message) {
+		super(message);
+	}
+	
+	public ServiceUnavailableException(Throwable cause) {
+		super(cause);
+	}
+	
+	public ServiceUnavailableException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+	
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
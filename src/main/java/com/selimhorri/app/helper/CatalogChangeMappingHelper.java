@@ -0,0 +1,20 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.CatalogChange;
+import com.selimhorri.app.dto.CatalogChangeDto;
+
+public interface CatalogChangeMappingHelper {
+	
+	public static CatalogChangeDto map(final CatalogChange catalogChange) {
+		return CatalogChangeDto.builder()
+				.sequence(catalogChange.getChangeId())
+				.entityType(catalogChange.getEntityType())
+				.entityId(catalogChange.getEntityId())
+				.changeType(catalogChange.getChangeType())
+				.changedAt(catalogChange.getChangedAt())
+				.build();
+	}
+	
+	
+	
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.app.helper;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Prices are carried as long minor units (cents) at a fixed currency scale; BigDecimal only at the
+// database and JSON edges
+public interface MoneyHelper {
+	
+	// Decimal places of the catalog currency, matches products.price_unit DECIMAL(13,2)
+	public static final int SCALE = 2;
+	public static final long MINOR_UNITS_PER_MAJOR = 100L;
+	// Stands for "no price given" where a primitive can't be null
+	public static final long NO_PRICE = Long.MIN_VALUE;
+	
+	public static long toMinorUnits(final BigDecimal amount) {
+		return amount == null
+				? NO_PRICE
+				: amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+	
+	public static BigDecimal toDecimal(final long minorUnits) {
+		return minorUnits == NO_PRICE ? null : BigDecimal.valueOf(minorUnits, SCALE);
+	}
+	
+	// price * numerator / denominator rounded half up, in integer arithmetic
+	public static long multiply(final long minorUnits, final long numerator, final long denominator) {
+		return Math.floorDiv(Math.addExact(Math.multiplyExact(minorUnits, numerator), denominator / 2), denominator);
+	}
+	
+	
+	
+}
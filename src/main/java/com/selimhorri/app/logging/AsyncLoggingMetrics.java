@@ -0,0 +1,64 @@
+package com.selimhorri.app.logging;
+
+import java.util.Iterator;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Meters for the appenders and filters declared in logback-spring.xml: logging.events.dropped{appender,reason},
+// logging.async.queue{appender} and logging.events.sampled. Nothing is registered without Logback
+@Component
+public class AsyncLoggingMetrics implements MeterBinder {
+	
+	@Override
+	public void bindTo(final MeterRegistry meterRegistry) {
+		final ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+		if (!(loggerFactory instanceof LoggerContext))
+			return;
+		final LoggerContext loggerContext = (LoggerContext) loggerFactory;
+		
+		final Iterator<Appender<ILoggingEvent>> appenders = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+		while (appenders.hasNext()) {
+			final Appender<ILoggingEvent> appender = appenders.next();
+			if (appender instanceof MeteredAsyncAppender)
+				bind(meterRegistry, (MeteredAsyncAppender) appender);
+		}
+		for (final TurboFilter turboFilter : loggerContext.getTurboFilterList())
+			if (turboFilter instanceof RateSamplingTurboFilter)
+				FunctionCounter.builder("logging.events.sampled", (RateSamplingTurboFilter) turboFilter,
+						RateSamplingTurboFilter::getSampledOut)
+						.description("Request-path log events left out by the per-logger rate limit")
+						.register(meterRegistry);
+	}
+	
+	private static void bind(final MeterRegistry meterRegistry, final MeteredAsyncAppender appender) {
+		FunctionCounter.builder("logging.events.dropped", appender, MeteredAsyncAppender::getDiscarded)
+				.description("Log events dropped by the async appender")
+				.tag("appender", appender.getName())
+				.tag("reason", "discarding-threshold")
+				.register(meterRegistry);
+		FunctionCounter.builder("logging.events.dropped", appender, MeteredAsyncAppender::getQueueFull)
+				.description("Log events dropped by the async appender")
+				.tag("appender", appender.getName())
+				.tag("reason", "queue-full")
+				.register(meterRegistry);
+		Gauge.builder("logging.async.queue", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+				.description("Log events waiting in the async appender queue")
+				.tag("appender", appender.getName())
+				.register(meterRegistry);
+	}
+	
+	
+	
+}
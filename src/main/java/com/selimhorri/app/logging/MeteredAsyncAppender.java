@@ -0,0 +1,45 @@
+package com.selimhorri.app.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+// AsyncAppender that counts what it throws away: TRACE/DEBUG/INFO once the queue is past the
+// discarding threshold (logback's own policy), and anything when the queue is full under neverBlock.
+// Read by AsyncLoggingMetrics
+public class MeteredAsyncAppender extends AsyncAppender {
+	
+	private final LongAdder discarded = new LongAdder();
+	private final LongAdder queueFull = new LongAdder();
+	
+	@Override
+	protected void append(final ILoggingEvent event) {
+		// A concurrent producer can still fill the last slot after this check; super then drops uncounted
+		if (this.isNeverBlock() && this.getRemainingCapacity() == 0) {
+			this.queueFull.increment();
+			return;
+		}
+		super.append(event);
+	}
+	
+	// Only asked once the queue is below the discarding threshold
+	@Override
+	protected boolean isDiscardable(final ILoggingEvent event) {
+		final boolean discardable = super.isDiscardable(event);
+		if (discardable)
+			this.discarded.increment();
+		return discardable;
+	}
+	
+	public long getDiscarded() {
+		return this.discarded.sum();
+	}
+	
+	public long getQueueFull() {
+		return this.queueFull.sum();
+	}
+	
+	
+	
+}
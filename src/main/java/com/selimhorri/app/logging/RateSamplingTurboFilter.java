@@ -0,0 +1,84 @@
+package com.selimhorri.app.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// Caps request-path loggers to eventsPerSecond events per logger and second, at maxLevel and below;
+// WARN/ERROR always pass. Runs before the event is built, so a sampled-out call costs one map lookup.
+// Configured in logback-spring.xml, sampled-out events are counted by AsyncLoggingMetrics
+public class RateSamplingTurboFilter extends TurboFilter {
+	
+	private final List<String> loggerPrefixes = new ArrayList<>();
+	private final Map<String, Window> windows = new ConcurrentHashMap<>();
+	private final LongAdder sampledOut = new LongAdder();
+	private int eventsPerSecond = 10;
+	private Level maxLevel = Level.INFO;
+	
+	public void addLoggerPrefix(final String loggerPrefix) {
+		this.loggerPrefixes.add(loggerPrefix.trim());
+	}
+	
+	public void setEventsPerSecond(final int eventsPerSecond) {
+		this.eventsPerSecond = eventsPerSecond;
+	}
+	
+	public void setMaxLevel(final String maxLevel) {
+		this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+	}
+	
+	public long getSampledOut() {
+		return this.sampledOut.sum();
+	}
+	
+	@Override
+	public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+			final Object[] params, final Throwable t) {
+		// No format: an isXxxEnabled() check, not an event
+		if (format == null || this.eventsPerSecond < 0 || !this.isStarted()
+				|| level.toInt() > this.maxLevel.toInt() || !this.isSampled(logger.getName()))
+			return FilterReply.NEUTRAL;
+		final long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+		if (this.windows.computeIfAbsent(logger.getName(), name -> new Window()).acquire(second) <= this.eventsPerSecond)
+			return FilterReply.NEUTRAL;
+		this.sampledOut.increment();
+		return FilterReply.DENY;
+	}
+	
+	private boolean isSampled(final String loggerName) {
+		for (final String prefix : this.loggerPrefixes)
+			if (loggerName.startsWith(prefix))
+				return true;
+		return false;
+	}
+	
+	// Fixed one-second window; a reset racing with increments may let a few extra events through
+	private static final class Window {
+		
+		private final AtomicLong second = new AtomicLong(Long.MIN_VALUE);
+		private final AtomicInteger count = new AtomicInteger();
+		
+		private int acquire(final long now) {
+			final long current = this.second.get();
+			if (current != now && this.second.compareAndSet(current, now))
+				this.count.set(0);
+			return this.count.incrementAndGet();
+		}
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,71 @@
+package com.selimhorri.app.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@Configuration
+public class DataSourceProxyConfig {
+	
+	// Only the outermost "dataSource": the primary/replica pools behind the read-replica routing
+	// would see every statement twice. Result sets are only proxied when some MethodExecutionListener
+	// wants to see them (e.g. row counting in tests), production has none. Off in a native image: the JDK
+	// proxies are registered in proxy-config.json but the listeners have never been verified there
+	@Bean
+	public static BeanPostProcessor dataSourceProxyPostProcessor(final ObjectProvider<QueryExecutionListener> listeners,
+			final ObjectProvider<MethodExecutionListener> methodListeners) {
+		return new BeanPostProcessor() {
+			
+			@Override
+			public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+				if (!"dataSource".equals(beanName) || !(bean instanceof DataSource) || NativeDetector.inNativeImage())
+					return bean;
+				final List<QueryExecutionListener> queryListeners = listeners.orderedStream().collect(Collectors.toList());
+				final List<MethodExecutionListener> jdbcMethodListeners = methodListeners.orderedStream().collect(Collectors.toList());
+				if (queryListeners.isEmpty() && jdbcMethodListeners.isEmpty())
+					return bean;
+				final ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create((DataSource) bean).name(beanName);
+				queryListeners.forEach(builder::listener);
+				if (!jdbcMethodListeners.isEmpty()) {
+					builder.proxyResultSet();
+					jdbcMethodListeners.forEach(builder::methodListener);
+				}
+				return builder.build();
+			}
+			
+		};
+	}
+	
+	@Bean
+	@ConditionalOnProperty(name = "app.metrics.query-count.enabled", havingValue = "true", matchIfMissing = true)
+	public QueryCountingListener queryCountingListener() {
+		return new QueryCountingListener();
+	}
+	
+	@Bean
+	@ConditionalOnProperty(name = "app.metrics.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+	public SlowQueryLogListener slowQueryLogListener(
+			final MeterRegistry meterRegistry,
+			@Value("${app.metrics.slow-query.threshold:200ms}") final Duration threshold,
+			@Value("${app.metrics.slow-query.sample-rate:1.0}") final double sampleRate) {
+		return new SlowQueryLogListener(meterRegistry, threshold, sampleRate);
+	}
+	
+	
+	
+}
@@ -0,0 +1,88 @@
+package com.selimhorri.app.metrics;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// GET /actuator/hibernatestats?limit=20, queries ordered by total execution time.
+// Everything is 0 while the HIBERNATE_STATISTICS toggle is off
+@Component
+@Endpoint(id = "hibernatestats")
+@RequiredArgsConstructor
+public class HibernateStatisticsEndpoint {
+	
+	private static final int DEFAULT_LIMIT = 20;
+	
+	private final HibernateStatisticsMonitor hibernateStatisticsMonitor;
+	
+	@ReadOperation
+	public Map<String, Object> hibernateStatistics(@Nullable final Integer limit) {
+		final Statistics statistics = this.hibernateStatisticsMonitor.getStatistics();
+		final Map<String, Object> report = new LinkedHashMap<>();
+		report.put("enabled", statistics.isStatisticsEnabled());
+		report.put("since", statistics.getStartTime());
+		report.put("queryExecutions", statistics.getQueryExecutionCount());
+		report.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+		report.put("slowestQuery", SlowQueryLogListener.redact(statistics.getQueryExecutionMaxTimeQueryString()));
+		report.put("statementsPrepared", statistics.getPrepareStatementCount());
+		report.put("entitiesLoaded", statistics.getEntityLoadCount());
+		report.put("entitiesFetched", statistics.getEntityFetchCount());
+		report.put("secondLevelCacheHitRatio", HibernateStatisticsMonitor.ratio(
+				statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+		report.put("queryCacheHitRatio", HibernateStatisticsMonitor.ratio(
+				statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+		report.put("entities", Arrays.stream(statistics.getEntityNames())
+				.collect(Collectors.toMap(name -> name, name -> entity(statistics.getEntityStatistics(name)),
+						(a, b) -> a, LinkedHashMap::new)));
+		report.put("queries", queries(statistics, limit == null || limit < 1 ? DEFAULT_LIMIT : limit));
+		return report;
+	}
+	
+	private static Map<String, Object> entity(final EntityStatistics entityStatistics) {
+		final Map<String, Object> entity = new LinkedHashMap<>();
+		entity.put("loaded", entityStatistics.getLoadCount());
+		entity.put("fetched", entityStatistics.getFetchCount());
+		entity.put("inserted", entityStatistics.getInsertCount());
+		entity.put("updated", entityStatistics.getUpdateCount());
+		entity.put("deleted", entityStatistics.getDeleteCount());
+		return entity;
+	}
+	
+	private static List<Map<String, Object>> queries(final Statistics statistics, final int limit) {
+		return Arrays.stream(statistics.getQueries())
+				.map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+				.sorted(Comparator.comparingLong(
+						(Map.Entry<String, QueryStatistics> entry) -> entry.getValue().getExecutionTotalTime()).reversed())
+				.limit(limit)
+				.map(entry -> {
+					final QueryStatistics queryStatistics = entry.getValue();
+					final Map<String, Object> query = new LinkedHashMap<>();
+					query.put("query", SlowQueryLogListener.redact(entry.getKey()));
+					query.put("executions", queryStatistics.getExecutionCount());
+					query.put("avgTimeMillis", queryStatistics.getExecutionAvgTime());
+					query.put("maxTimeMillis", queryStatistics.getExecutionMaxTime());
+					query.put("totalTimeMillis", queryStatistics.getExecutionTotalTime());
+					query.put("rows", queryStatistics.getExecutionRowCount());
+					query.put("cacheHitRatio", HibernateStatisticsMonitor.ratio(
+							queryStatistics.getCacheHitCount(), queryStatistics.getCacheMissCount()));
+					return query;
+				})
+				.collect(Collectors.toList());
+	}
+	
+	
+	
+}
@@ -0,0 +1,144 @@
+package com.selimhorri.app.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.togglz.core.Feature;
+import org.togglz.core.manager.FeatureManager;
+import org.togglz.core.util.NamedFeature;
+
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.jpa.HibernateQueryMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+// Hibernate statistics cost a few counters per statement, so they follow the HIBERNATE_STATISTICS
+// toggle at runtime instead of hibernate.generate_statistics. Meters are bound once and read 0
+// while the toggle is off
+@Component
+@Slf4j
+public class HibernateStatisticsMonitor {
+	
+	public static final Feature HIBERNATE_STATISTICS = new NamedFeature("HIBERNATE_STATISTICS");
+	private static final String SESSION_FACTORY_NAME = "entityManagerFactory";
+	
+	private final Statistics statistics;
+	private final FeatureManager featureManager;
+	private final Duration toggleCheckInterval;
+	private final ScheduledExecutorService scheduler =
+			Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("hibernate-statistics-"));
+	
+	public HibernateStatisticsMonitor(
+			final EntityManagerFactory entityManagerFactory,
+			final FeatureManager featureManager,
+			final MeterRegistry meterRegistry,
+			@Value("${app.metrics.hibernate.toggle-check-interval:5s}") final Duration toggleCheckInterval) {
+		final SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		this.statistics = sessionFactory.getStatistics();
+		this.featureManager = featureManager;
+		this.toggleCheckInterval = toggleCheckInterval;
+		this.bindMeters(meterRegistry);
+		// Per query executions, max/min time, rows and cache requests, tagged by query
+		new HibernateQueryMetrics(sessionFactory, SESSION_FACTORY_NAME, Tags.empty()).bindTo(meterRegistry);
+	}
+	
+	@PostConstruct
+	void start() {
+		this.scheduler.scheduleWithFixedDelay(this::applyToggle,
+				0L, this.toggleCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+	
+	@PreDestroy
+	void stop() {
+		this.scheduler.shutdownNow();
+	}
+	
+	public Statistics getStatistics() {
+		return this.statistics;
+	}
+	
+	void applyToggle() {
+		try {
+			final boolean active = this.featureManager.isActive(HIBERNATE_STATISTICS);
+			if (active != this.statistics.isStatisticsEnabled()) {
+				this.statistics.setStatisticsEnabled(active);
+				log.info("*** Hibernate statistics {} *", active ? "enabled" : "disabled");
+			}
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Could not read the HIBERNATE_STATISTICS toggle: {} *", e.getMessage());
+		}
+	}
+	
+	private void bindMeters(final MeterRegistry meterRegistry) {
+		final Tags tags = Tags.of(SESSION_FACTORY_NAME, SESSION_FACTORY_NAME);
+		this.counter(meterRegistry, "hibernate.statistics.query.executions", "Queries executed", tags,
+				Statistics::getQueryExecutionCount);
+		this.counter(meterRegistry, "hibernate.statistics.statements", "JDBC statements prepared", tags,
+				Statistics::getPrepareStatementCount);
+		this.counter(meterRegistry, "hibernate.statistics.entities.fetched", "Entities fetched lazily or by id", tags,
+				Statistics::getEntityFetchCount);
+		TimeGauge.builder("hibernate.statistics.query.execution.max", this.statistics, TimeUnit.MILLISECONDS,
+						Statistics::getQueryExecutionMaxTime)
+				.description("Slowest query execution since statistics were enabled")
+				.tags(tags)
+				.register(meterRegistry);
+		
+		this.counter(meterRegistry, "hibernate.statistics.cache.requests", "Second-level and query cache requests",
+				tags.and("level", "second", "result", "hit"), Statistics::getSecondLevelCacheHitCount);
+		this.counter(meterRegistry, "hibernate.statistics.cache.requests", "Second-level and query cache requests",
+				tags.and("level", "second", "result", "miss"), Statistics::getSecondLevelCacheMissCount);
+		this.counter(meterRegistry, "hibernate.statistics.cache.requests", "Second-level and query cache requests",
+				tags.and("level", "query", "result", "hit"), Statistics::getQueryCacheHitCount);
+		this.counter(meterRegistry, "hibernate.statistics.cache.requests", "Second-level and query cache requests",
+				tags.and("level", "query", "result", "miss"), Statistics::getQueryCacheMissCount);
+		Gauge.builder("hibernate.statistics.cache.hit.ratio", this.statistics,
+						stats -> ratio(stats.getSecondLevelCacheHitCount(), stats.getSecondLevelCacheMissCount()))
+				.tags(tags.and("level", "second"))
+				.register(meterRegistry);
+		Gauge.builder("hibernate.statistics.cache.hit.ratio", this.statistics,
+						stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+				.tags(tags.and("level", "query"))
+				.register(meterRegistry);
+		
+		for (final String entityName : this.statistics.getEntityNames())
+			this.counter(meterRegistry, "hibernate.statistics.entities.loaded", "Entities loaded from JDBC results",
+					tags.and("entity", entityName.substring(entityName.lastIndexOf('.') + 1)),
+					stats -> {
+						final EntityStatistics entityStatistics = stats.getEntityStatistics(entityName);
+						return entityStatistics == null ? 0 : entityStatistics.getLoadCount();
+					});
+	}
+	
+	private void counter(final MeterRegistry meterRegistry, final String name, final String description,
+			final Tags tags, final ToDoubleFunction<Statistics> count) {
+		FunctionCounter.builder(name, this.statistics, count)
+				.description(description)
+				.tags(tags)
+				.register(meterRegistry);
+	}
+	
+	static double ratio(final long hits, final long misses) {
+		return hits + misses == 0 ? Double.NaN : hits / (double) (hits + misses);
+	}
+	
+	
+	
+}
@@ -0,0 +1,28 @@
+package com.selimhorri.app.metrics;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+public class QueryCountingListener implements QueryExecutionListener {
+	
+	private static final String STARTED_AT = QueryCountingListener.class.getName() + ".startedAt";
+	
+	// datasource-proxy only reports elapsed time in millis, too coarse for single-row lookups
+	@Override
+	public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+		execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+	}
+	
+	@Override
+	public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+		final Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+		QueryStats.record(execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size(),
+				startedAt == null ? 0L : System.nanoTime() - startedAt);
+	}
+	
+	
+	
+}
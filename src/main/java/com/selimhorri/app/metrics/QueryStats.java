@@ -0,0 +1,52 @@
+package com.selimhorri.app.metrics;
+
+// JDBC statements and DB time of the service call running on the current thread. Opened by
+// ServiceMetricsAspect, fed by QueryCountingListener; statements outside a scope are not counted
+public final class QueryStats {
+	
+	private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+	
+	private final QueryStats parent;
+	private int statements;
+	private long dbNanos;
+	
+	private QueryStats(final QueryStats parent) {
+		this.parent = parent;
+	}
+	
+	public static QueryStats begin() {
+		final QueryStats stats = new QueryStats(CURRENT.get());
+		CURRENT.set(stats);
+		return stats;
+	}
+	
+	// Nested scopes roll up into the enclosing one
+	public void end() {
+		if (this.parent == null) {
+			CURRENT.remove();
+			return;
+		}
+		this.parent.statements += this.statements;
+		this.parent.dbNanos += this.dbNanos;
+		CURRENT.set(this.parent);
+	}
+	
+	static void record(final int statements, final long nanos) {
+		final QueryStats stats = CURRENT.get();
+		if (stats != null) {
+			stats.statements += statements;
+			stats.dbNanos += nanos;
+		}
+	}
+	
+	public int getStatements() {
+		return this.statements;
+	}
+	
+	public long getDbNanos() {
+		return this.dbNanos;
+	}
+	
+	
+	
+}
@@ -0,0 +1,74 @@
+package com.selimhorri.app.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Bytes allocated and CPU burnt on behalf of one request, summed over every thread that worked on
+// it: the servlet dispatches (ResourceUsageFilter) and DbBulkhead workers (charge)
+public final class RequestResourceUsage {
+	
+	private static final ThreadLocal<RequestResourceUsage> CURRENT = new ThreadLocal<>();
+	
+	private final LongAdder allocatedBytes = new LongAdder();
+	private final LongAdder cpuNanos = new LongAdder();
+	
+	// Request being measured on this thread, null outside ResourceUsageFilter or when it is off
+	public static RequestResourceUsage current() {
+		return CURRENT.get();
+	}
+	
+	public Segment begin() {
+		final Segment segment = new Segment(CURRENT.get(), ThreadResourceUsage.allocatedBytes(), ThreadResourceUsage.cpuNanos());
+		CURRENT.set(this);
+		return segment;
+	}
+	
+	public <T> T charge(final Supplier<T> task) {
+		final Segment segment = this.begin();
+		try {
+			return task.get();
+		}
+		finally {
+			segment.end();
+		}
+	}
+	
+	public long getAllocatedBytes() {
+		return this.allocatedBytes.sum();
+	}
+	
+	public long getCpuNanos() {
+		return this.cpuNanos.sum();
+	}
+	
+	public final class Segment {
+		
+		private final RequestResourceUsage previous;
+		private final long allocatedAtStart;
+		private final long cpuAtStart;
+		
+		private Segment(final RequestResourceUsage previous, final long allocatedAtStart, final long cpuAtStart) {
+			this.previous = previous;
+			this.allocatedAtStart = allocatedAtStart;
+			this.cpuAtStart = cpuAtStart;
+		}
+		
+		// Must run on the thread that called begin()
+		public void end() {
+			final long allocated = ThreadResourceUsage.allocatedBytes();
+			final long cpu = ThreadResourceUsage.cpuNanos();
+			if (this.allocatedAtStart >= 0 && allocated >= 0)
+				allocatedBytes.add(allocated - this.allocatedAtStart);
+			if (this.cpuAtStart >= 0 && cpu >= 0)
+				cpuNanos.add(cpu - this.cpuAtStart);
+			if (this.previous == null)
+				CURRENT.remove();
+			else
+				CURRENT.set(this.previous);
+		}
+		
+	}
+	
+	
+	
+}
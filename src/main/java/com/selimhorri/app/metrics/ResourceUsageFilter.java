@@ -0,0 +1,119 @@
+package com.selimhorri.app.metrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Per-request allocated bytes and CPU time by endpoint. CompletableFuture endpoints run in two
+// servlet dispatches (handler, then response rendering), both are measured and recorded together
+@Component
+@ConditionalOnProperty(name = "app.metrics.resource-usage.enabled", havingValue = "true")
+@Slf4j
+public class ResourceUsageFilter extends OncePerRequestFilter {
+	
+	private static final String USAGE_ATTRIBUTE = RequestResourceUsage.class.getName();
+	
+	private final MeterRegistry meterRegistry;
+	private final boolean supported;
+	private final double[] allocationSlos;
+	private final Duration[] cpuSlos;
+	private final Map<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+	
+	public ResourceUsageFilter(
+			final MeterRegistry meterRegistry,
+			@Value("${app.metrics.resource-usage.allocation-slos:64KB,256KB,1MB,4MB,16MB,64MB}") final List<DataSize> allocationSlos,
+			@Value("${app.metrics.latency-slos:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s,2s}") final List<Duration> cpuSlos) {
+		this.meterRegistry = meterRegistry;
+		this.supported = ThreadResourceUsage.isSupported();
+		this.allocationSlos = allocationSlos.stream().mapToDouble(DataSize::toBytes).toArray();
+		this.cpuSlos = cpuSlos.toArray(Duration[]::new);
+		if (!this.supported)
+			log.warn("*** Thread allocation/CPU accounting is not available on this JVM, request resource usage is off *");
+	}
+	
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+	
+	@Override
+	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+			final FilterChain filterChain) throws ServletException, IOException {
+		if (!this.supported) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		RequestResourceUsage usage = (RequestResourceUsage) request.getAttribute(USAGE_ATTRIBUTE);
+		if (usage == null) {
+			usage = new RequestResourceUsage();
+			request.setAttribute(USAGE_ATTRIBUTE, usage);
+		}
+		final RequestResourceUsage.Segment segment = usage.begin();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			segment.end();
+			if (!request.isAsyncStarted())
+				this.record(request, usage);
+		}
+	}
+	
+	private void record(final HttpServletRequest request, final RequestResourceUsage usage) {
+		final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		final String endpoint = request.getMethod() + " " + (pattern == null ? "UNMAPPED" : pattern);
+		final EndpointMeters endpointMeters = this.meters.computeIfAbsent(endpoint, this::createMeters);
+		endpointMeters.allocated.record(usage.getAllocatedBytes());
+		endpointMeters.cpu.record(usage.getCpuNanos(), TimeUnit.NANOSECONDS);
+	}
+	
+	private EndpointMeters createMeters(final String endpoint) {
+		return new EndpointMeters(
+				DistributionSummary.builder("http.request.allocated")
+						.description("Bytes allocated while serving a request, all threads")
+						.baseUnit("bytes")
+						.tag("endpoint", endpoint)
+						.serviceLevelObjectives(this.allocationSlos)
+						.register(this.meterRegistry),
+				Timer.builder("http.request.cpu")
+						.description("CPU time spent serving a request, all threads")
+						.tag("endpoint", endpoint)
+						.serviceLevelObjectives(this.cpuSlos)
+						.register(this.meterRegistry));
+	}
+	
+	private static final class EndpointMeters {
+		
+		private final DistributionSummary allocated;
+		private final Timer cpu;
+		
+		private EndpointMeters(final DistributionSummary allocated, final Timer cpu) {
+			this.allocated = allocated;
+			this.cpu = cpu;
+		}
+		
+	}
+	
+	
+	
+}
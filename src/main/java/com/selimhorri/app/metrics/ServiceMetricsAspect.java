@@ -0,0 +1,117 @@
+package com.selimhorri.app.metrics;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Latency, statement count and DB time per catalog endpoint. Each REST endpoint maps to one
+// service method, and measuring there (inside load shedding, on the thread that runs the
+// queries, also under the async bulkhead) keeps shed calls out of the histograms
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServiceMetricsAspect {
+	
+	private static final double[] STATEMENT_SLOS = {1, 2, 5, 10, 25, 50, 100};
+	
+	private final MeterRegistry meterRegistry;
+	private final SlowRequestTracker slowRequestTracker;
+	private final Duration[] latencySlos;
+	private final Map<Method, EndpointMeters> meters = new ConcurrentHashMap<>();
+	
+	public ServiceMetricsAspect(
+			final MeterRegistry meterRegistry,
+			final SlowRequestTracker slowRequestTracker,
+			@Value("${app.metrics.latency-slos:5ms,10ms,25ms,50ms,100ms,250ms,500ms,1s,2s}") final List<Duration> latencySlos) {
+		this.meterRegistry = meterRegistry;
+		this.slowRequestTracker = slowRequestTracker;
+		this.latencySlos = latencySlos.toArray(Duration[]::new);
+	}
+	
+	@Around("execution(public * com.selimhorri.app.service.impl.ProductServiceImpl.*(..))"
+			+ " || execution(public * com.selimhorri.app.service.impl.CategoryServiceImpl.*(..))")
+	public Object measure(final ProceedingJoinPoint joinPoint) throws Throwable {
+		final EndpointMeters endpointMeters = this.meters.computeIfAbsent(
+				((MethodSignature) joinPoint.getSignature()).getMethod(), this::createMeters);
+		final QueryStats queryStats = QueryStats.begin();
+		final long start = System.nanoTime();
+		boolean success = false;
+		try {
+			final Object result = joinPoint.proceed();
+			success = true;
+			return result;
+		}
+		finally {
+			final long elapsed = System.nanoTime() - start;
+			queryStats.end();
+			(success ? endpointMeters.success : endpointMeters.error).record(elapsed, TimeUnit.NANOSECONDS);
+			endpointMeters.statements.record(queryStats.getStatements());
+			endpointMeters.dbTime.record(queryStats.getDbNanos(), TimeUnit.NANOSECONDS);
+			this.slowRequestTracker.record(endpointMeters.endpoint, success ? "SUCCESS" : "ERROR", elapsed, queryStats);
+		}
+	}
+	
+	// e.g. "ProductService.findAll"; overloads share their endpoint
+	private EndpointMeters createMeters(final Method method) {
+		final String endpoint = method.getDeclaringClass().getSimpleName().replace("Impl", "") + "." + method.getName();
+		return new EndpointMeters(endpoint,
+				this.latencyTimer(endpoint, "SUCCESS"),
+				this.latencyTimer(endpoint, "ERROR"),
+				DistributionSummary.builder("catalog.endpoint.statements")
+						.description("JDBC statements executed per catalog call")
+						.tag("endpoint", endpoint)
+						.serviceLevelObjectives(STATEMENT_SLOS)
+						.register(this.meterRegistry),
+				Timer.builder("catalog.endpoint.db.time")
+						.description("Time spent executing JDBC statements per catalog call")
+						.tag("endpoint", endpoint)
+						.serviceLevelObjectives(this.latencySlos)
+						.register(this.meterRegistry));
+	}
+	
+	private Timer latencyTimer(final String endpoint, final String outcome) {
+		return Timer.builder("catalog.endpoint.latency")
+				.description("Catalog service call latency")
+				.tags("endpoint", endpoint, "outcome", outcome)
+				.serviceLevelObjectives(this.latencySlos)
+				.register(this.meterRegistry);
+	}
+	
+	private static final class EndpointMeters {
+		
+		private final String endpoint;
+		private final Timer success;
+		private final Timer error;
+		private final DistributionSummary statements;
+		private final Timer dbTime;
+		
+		private EndpointMeters(final String endpoint, final Timer success, final Timer error,
+				final DistributionSummary statements, final Timer dbTime) {
+			this.endpoint = endpoint;
+			this.success = success;
+			this.error = error;
+			this.statements = statements;
+			this.dbTime = dbTime;
+		}
+		
+	}
+	
+	
+	
+}
@@ -0,0 +1,70 @@
+package com.selimhorri.app.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// Logs statements slower than the threshold, a sample of them when sampleRate < 1. Bind parameter
+// values are never logged and inline literals are masked, only the statement shape gets out
+@Slf4j
+public class SlowQueryLogListener implements QueryExecutionListener {
+	
+	private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+	private static final int MAX_LOGGED_LENGTH = 2000;
+	
+	private final long thresholdMillis;
+	private final double sampleRate;
+	private final Counter slowQueries;
+	
+	public SlowQueryLogListener(final MeterRegistry meterRegistry, final Duration threshold, final double sampleRate) {
+		if (sampleRate < 0 || sampleRate > 1)
+			throw new IllegalArgumentException("app.metrics.slow-query.sample-rate must be within [0, 1]");
+		this.thresholdMillis = threshold.toMillis();
+		this.sampleRate = sampleRate;
+		// Counted whether or not the sample logs it
+		this.slowQueries = Counter.builder("db.slow.queries")
+				.description("JDBC executions slower than app.metrics.slow-query.threshold")
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public void beforeQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+	}
+	
+	@Override
+	public void afterQuery(final ExecutionInfo execInfo, final List<QueryInfo> queryInfoList) {
+		if (execInfo.getElapsedTime() < this.thresholdMillis)
+			return;
+		this.slowQueries.increment();
+		if (this.sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate)
+			return;
+		final int parameters = queryInfoList.stream()
+				.mapToInt(queryInfo -> queryInfo.getParametersList().stream().mapToInt(List::size).sum())
+				.sum();
+		log.warn("*** Slow query, {} ms{}, {} bind parameter(s) redacted: {} *",
+				execInfo.getElapsedTime(),
+				execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+				parameters,
+				queryInfoList.stream().map(queryInfo -> redact(queryInfo.getQuery())).collect(Collectors.joining("; ")));
+	}
+	
+	static String redact(final String sql) {
+		if (sql == null)
+			return null;
+		final String masked = NUMERIC_LITERAL.matcher(STRING_LITERAL.matcher(sql).replaceAll("'?'")).replaceAll("?");
+		return masked.length() > MAX_LOGGED_LENGTH ? masked.substring(0, MAX_LOGGED_LENGTH) + "..." : masked;
+	}
+	
+	
+	
+}
@@ -0,0 +1,21 @@
+package com.selimhorri.app.metrics;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@RequiredArgsConstructor
+public final class SlowRequest {
+	
+	private final String endpoint;
+	private final String outcome;
+	private final Instant finishedAt;
+	private final double durationMillis;
+	private final int statements;
+	private final double dbTimeMillis;
+	
+}
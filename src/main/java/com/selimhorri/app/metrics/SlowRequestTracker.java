@@ -0,0 +1,51 @@
+package com.selimhorri.app.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Ring buffer of the most recent service calls; the slowest ones are picked at read time,
+// so recording stays a single array write
+@Component
+public class SlowRequestTracker {
+	
+	private final AtomicReferenceArray<SlowRequest> recent;
+	private final AtomicLong sequence = new AtomicLong();
+	
+	public SlowRequestTracker(@Value("${app.metrics.slow-requests.capacity:512}") final int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("app.metrics.slow-requests.capacity must be at least 1");
+		this.recent = new AtomicReferenceArray<>(capacity);
+	}
+	
+	public void record(final String endpoint, final String outcome, final long durationNanos, final QueryStats queryStats) {
+		final int slot = (int) (this.sequence.getAndIncrement() % this.recent.length());
+		this.recent.set(slot, new SlowRequest(endpoint, outcome, Instant.now(), toMillis(durationNanos),
+				queryStats.getStatements(), toMillis(queryStats.getDbNanos())));
+	}
+	
+	public List<SlowRequest> slowest(final int limit) {
+		final List<SlowRequest> snapshot = new ArrayList<>(this.recent.length());
+		for (int i = 0; i < this.recent.length(); i++) {
+			final SlowRequest request = this.recent.get(i);
+			if (request != null)
+				snapshot.add(request);
+		}
+		snapshot.sort(Comparator.comparingDouble(SlowRequest::getDurationMillis).reversed());
+		return List.copyOf(snapshot.subList(0, Math.min(limit, snapshot.size())));
+	}
+	
+	private static double toMillis(final long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	
+	
+}
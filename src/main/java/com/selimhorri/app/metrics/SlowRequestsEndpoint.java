@@ -0,0 +1,29 @@
+package com.selimhorri.app.metrics;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// GET /actuator/slowrequests?limit=20
+@Component
+@Endpoint(id = "slowrequests")
+@RequiredArgsConstructor
+public class SlowRequestsEndpoint {
+	
+	private static final int DEFAULT_LIMIT = 20;
+	
+	private final SlowRequestTracker slowRequestTracker;
+	
+	@ReadOperation
+	public List<SlowRequest> slowRequests(@Nullable final Integer limit) {
+		return this.slowRequestTracker.slowest(limit == null || limit < 1 ? DEFAULT_LIMIT : limit);
+	}
+	
+	
+	
+}
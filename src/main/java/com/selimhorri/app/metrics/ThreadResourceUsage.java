@@ -0,0 +1,40 @@
+package com.selimhorri.app.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+// Current-thread allocation and CPU counters from the HotSpot ThreadMXBean
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ThreadResourceUsage {
+	
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS =
+			THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+	
+	public static boolean isSupported() {
+		return HOTSPOT_THREADS != null
+				&& HOTSPOT_THREADS.isThreadAllocatedMemorySupported() && HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()
+				&& THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+	}
+	
+	// Monotonic per thread; only deltas taken on the same thread mean anything.
+	// -1 where the JVM doesn't track the thread, e.g. virtual threads
+	public static long allocatedBytes() {
+		return HOTSPOT_THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+	
+	public static long cpuNanos() {
+		try {
+			return THREADS.getCurrentThreadCpuTime();
+		}
+		catch (UnsupportedOperationException e) {
+			return -1L;
+		}
+	}
+	
+	
+	
+}
@@ -0,0 +1,298 @@
+package com.selimhorri.app.pricing;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
+import com.selimhorri.app.event.CatalogChangeEvent;
+import com.selimhorri.app.event.PricingRulesChangedEvent;
+import com.selimhorri.app.helper.MoneyHelper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Keeps products.effective_price in line with the pricing rules. A single coordinator thread decides
+// what to recompute: everything when the rules change or a rule window opens/closes, otherwise only
+// the products changed since the last tick. Full runs fan out one task per category and, across
+// instances, only run on the one holding the pricing_materializer_state lease.
+@Component
+@Slf4j
+public class EffectivePriceMaterializer {
+
+	private static final String SELECT_COLUMNS = "SELECT product_id, sku, category_id, price_unit, effective_price, "
+			+ "effective_price_base, discount_source, effective_price_generation, effective_price_valid_until FROM products ";
+	private static final String SELECT_CATEGORY_IDS = "SELECT DISTINCT category_id FROM products WHERE category_id IS NOT NULL";
+	private static final String SELECT_CATEGORY_BATCH = SELECT_COLUMNS
+			+ "WHERE category_id = ? AND product_id > ? ORDER BY product_id LIMIT ?";
+	private static final String SELECT_BY_IDS = SELECT_COLUMNS + "WHERE product_id IN (:productIds)";
+	// updated_at = updated_at keeps ON UPDATE CURRENT_TIMESTAMP from treating this as a product change
+	private static final String UPDATE_EFFECTIVE_PRICE = "UPDATE products SET effective_price = ?, effective_price_base = ?, "
+			+ "discount_source = ?, effective_price_generation = ?, effective_price_valid_until = ?, updated_at = updated_at "
+			+ "WHERE product_id = ?";
+	private static final String ACQUIRE_LEASE = "UPDATE pricing_materializer_state SET lease_owner = ?, lease_until = ? "
+			+ "WHERE id = 1 AND (lease_owner = ? OR lease_until < ?)";
+	private static final String RELEASE_LEASE = "UPDATE pricing_materializer_state SET lease_owner = NULL, lease_until = 0 "
+			+ "WHERE id = 1 AND lease_owner = ?";
+	private static final String SELECT_STATE = "SELECT generation, valid_until FROM pricing_materializer_state WHERE id = 1";
+	private static final String UPDATE_STATE = "UPDATE pricing_materializer_state SET generation = ?, valid_until = ? WHERE id = 1";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+	private final PricingEngine pricingEngine;
+	private final int batchSize;
+	private final Duration interval;
+	private final Duration lease;
+	private final String instanceId = UUID.randomUUID().toString();
+	private final ScheduledExecutorService coordinator =
+			Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("price-materializer-"));
+	private final ExecutorService categoryWorkers;
+	private final Set<Integer> dirtyProductIds = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean fullRunRequested = new AtomicBoolean(true);
+	private final Timer fullRunTimer;
+	private final Timer incrementalRunTimer;
+	private final Counter updatedCounter;
+	private volatile long nextTransition = Long.MAX_VALUE;
+
+	public EffectivePriceMaterializer(
+			final DataSource dataSource,
+			final PricingEngine pricingEngine,
+			final MeterRegistry meterRegistry,
+			@Value("${app.pricing.materializer.threads:4}") final int threads,
+			@Value("${app.pricing.materializer.batch-size:500}") final int batchSize,
+			@Value("${app.pricing.materializer.interval:1s}") final Duration interval,
+			@Value("${app.pricing.materializer.lease:10m}") final Duration lease) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(this.jdbcTemplate);
+		this.pricingEngine = pricingEngine;
+		this.batchSize = batchSize;
+		this.interval = interval;
+		this.lease = lease;
+		this.categoryWorkers = Executors.newFixedThreadPool(threads, new NamedThreadFactory("price-materializer-worker-"));
+		this.fullRunTimer = Timer.builder("pricing.materialize")
+				.description("Effective price recomputation runs")
+				.tag("mode", "full")
+				.register(meterRegistry);
+		this.incrementalRunTimer = Timer.builder("pricing.materialize")
+				.description("Effective price recomputation runs")
+				.tag("mode", "incremental")
+				.register(meterRegistry);
+		this.updatedCounter = Counter.builder("pricing.materialize.updated")
+				.description("Products whose effective price was rewritten")
+				.register(meterRegistry);
+	}
+
+	// Flyway has run by now
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		this.coordinator.scheduleWithFixedDelay(this::tick, 0L, this.interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		this.coordinator.shutdownNow();
+		this.categoryWorkers.shutdownNow();
+		try {
+			this.jdbcTemplate.update(RELEASE_LEASE, this.instanceId);
+		}
+		catch (DataAccessException e) {
+			log.warn("*** Could not release the effective price lease, it expires in {} *", this.lease);
+		}
+	}
+
+	@EventListener
+	public void onPricingRulesChanged(final PricingRulesChangedEvent event) {
+		this.fullRunRequested.set(true);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCatalogChange(final CatalogChangeEvent event) {
+		if (event.getChange().getEntityType() == CatalogEntityType.PRODUCT
+				&& event.getChange().getChangeType() != CatalogChangeType.DELETED)
+			this.dirtyProductIds.add(event.getChange().getEntityId());
+	}
+
+	void tick() {
+		try {
+			final boolean fullRunDue = this.fullRunRequested.getAndSet(false) || System.currentTimeMillis() >= this.nextTransition;
+			if (!fullRunDue || !this.runFull())
+				if (!this.dirtyProductIds.isEmpty())
+					this.recomputeDirty();
+		}
+		catch (RuntimeException e) {
+			this.fullRunRequested.set(true);
+			log.warn("*** Effective price recomputation failed, retrying next tick: {} *", e.getMessage());
+		}
+	}
+
+	// False when the catalog is already materialized for the current rules, or another instance holds
+	// the lease; that one runs it and this instance keeps checking every tick until it is done
+	boolean runFull() {
+		final PricingRules pricing = this.pricingEngine.current();
+		final long now = System.currentTimeMillis();
+		final Map<String, Object> state = this.jdbcTemplate.queryForMap(SELECT_STATE);
+		final Number generation = (Number) state.get("generation");
+		final Number validUntil = (Number) state.get("valid_until");
+		if (generation != null && generation.longValue() == pricing.getGeneration()
+				&& validUntil != null && now < validUntil.longValue()) {
+			this.nextTransition = validUntil.longValue();
+			return false;
+		}
+		if (!this.holdLease(now)) {
+			this.fullRunRequested.set(true);
+			return false;
+		}
+		this.recomputeAll();
+		return true;
+	}
+
+	private boolean holdLease(final long now) {
+		return this.jdbcTemplate.update(ACQUIRE_LEASE, this.instanceId, now + this.lease.toMillis(), this.instanceId, now) == 1;
+	}
+
+	public int recomputeAll() {
+		final long start = System.nanoTime();
+		final PricingRules pricing = this.pricingEngine.current();
+		final long now = System.currentTimeMillis();
+		// Full run covers whatever was queued before it started
+		this.dirtyProductIds.clear();
+		this.nextTransition = pricing.nextTransitionAfter(now);
+
+		final List<Future<Integer>> results = new ArrayList<>();
+		for (final Integer categoryId : this.jdbcTemplate.queryForList(SELECT_CATEGORY_IDS, Integer.class))
+			results.add(this.categoryWorkers.submit(() -> this.recomputeCategory(categoryId, pricing, now)));
+		int updated = 0;
+		try {
+			for (final Future<Integer> result : results) {
+				updated += result.get();
+				// Renewed per category so a long run doesn't outlive its lease
+				if (!this.holdLease(System.currentTimeMillis()))
+					log.warn("*** Effective price lease taken over by another instance during a full run *");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while recomputing effective prices", e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("Effective price recomputation failed", e.getCause());
+		}
+		this.jdbcTemplate.update(UPDATE_STATE, pricing.getGeneration(), this.nextTransition);
+		this.fullRunTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		log.info("*** Effective prices recomputed, {} categories, {} products updated *", results.size(), updated);
+		return updated;
+	}
+
+	public int recomputeDirty() {
+		final long start = System.nanoTime();
+		final List<Integer> productIds = new ArrayList<>(this.dirtyProductIds);
+		this.dirtyProductIds.removeAll(productIds);
+		final PricingRules pricing = this.pricingEngine.current();
+		final long now = System.currentTimeMillis();
+		int updated = 0;
+		for (int from = 0; from < productIds.size(); from += this.batchSize) {
+			final List<Integer> batch = productIds.subList(from, Math.min(from + this.batchSize, productIds.size()));
+			updated += this.write(this.namedJdbcTemplate.query(SELECT_BY_IDS,
+					new MapSqlParameterSource("productIds", batch), (rs, rowNum) -> this.compute(rs, pricing, now)));
+		}
+		this.incrementalRunTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return updated;
+	}
+
+	// Keyset pagination by product_id inside one category
+	private int recomputeCategory(final Integer categoryId, final PricingRules pricing, final long now) {
+		int updated = 0;
+		int lastProductId = 0;
+		while (true) {
+			final List<PriceUpdate> batch = this.jdbcTemplate.query(SELECT_CATEGORY_BATCH,
+					(rs, rowNum) -> this.compute(rs, pricing, now), categoryId, lastProductId, this.batchSize);
+			updated += this.write(batch);
+			if (batch.size() < this.batchSize)
+				return updated;
+			lastProductId = batch.get(batch.size() - 1).productId;
+		}
+	}
+
+	private PriceUpdate compute(final ResultSet rs, final PricingRules pricing, final long now) throws SQLException {
+		final int productId = rs.getInt("product_id");
+		final String sku = rs.getString("sku");
+		final int category = rs.getInt("category_id");
+		final Integer categoryId = rs.wasNull() ? null : category;
+		final long base = MoneyHelper.toMinorUnits(rs.getBigDecimal("price_unit"));
+		final boolean priced = base != MoneyHelper.NO_PRICE;
+
+		final long effective = priced ? pricing.price(sku, categoryId, base, now) : MoneyHelper.NO_PRICE;
+		final String source = priced ? pricing.discountSource(sku, categoryId, now) : null;
+		// Per product, so a rule window elsewhere in the catalog doesn't rewrite this row
+		final long validUntil = pricing.nextTransitionAfter(sku, categoryId, now);
+
+		final boolean unchanged = effective == MoneyHelper.toMinorUnits(rs.getBigDecimal("effective_price"))
+				&& base == MoneyHelper.toMinorUnits(rs.getBigDecimal("effective_price_base"))
+				&& Objects.equals(source, rs.getString("discount_source"))
+				&& Objects.equals(pricing.getGeneration(), rs.getObject("effective_price_generation", Long.class))
+				&& Objects.equals(validUntil, rs.getObject("effective_price_valid_until", Long.class));
+		return new PriceUpdate(productId, unchanged ? null : new Object[] {
+				MoneyHelper.toDecimal(effective), MoneyHelper.toDecimal(base), source,
+				pricing.getGeneration(), validUntil, productId});
+	}
+
+	private int write(final List<PriceUpdate> computed) {
+		final List<Object[]> changes = new ArrayList<>(computed.size());
+		for (final PriceUpdate update : computed)
+			if (update.parameters != null)
+				changes.add(update.parameters);
+		if (changes.isEmpty())
+			return 0;
+		this.jdbcTemplate.batchUpdate(UPDATE_EFFECTIVE_PRICE, changes);
+		this.updatedCounter.increment(changes.size());
+		return changes.size();
+	}
+
+	private static final class PriceUpdate {
+
+		private final int productId;
+		// UPDATE_EFFECTIVE_PRICE parameters, null when the stored values are already right
+		private final Object[] parameters;
+
+		private PriceUpdate(final int productId, final Object[] parameters) {
+			this.productId = productId;
+			this.parameters = parameters;
+		}
+
+	}
+
+
+
+}
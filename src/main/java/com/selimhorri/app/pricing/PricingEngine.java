@@ -0,0 +1,78 @@
+package com.selimhorri.app.pricing;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+import com.selimhorri.app.event.PricingRulesChangedEvent;
+import com.selimhorri.app.repository.PricingRuleRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Holds the compiled rules; readers only do a volatile read, rebuilds happen off the request path
+@Component
+@Slf4j
+public class PricingEngine {
+
+	private final PricingRuleRepository pricingRuleRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Duration refreshInterval;
+	private final ScheduledExecutorService scheduler =
+			Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("pricing-refresh-"));
+	private volatile PricingRules current = PricingRules.empty();
+	private volatile PricingRulesVersion version;
+
+	public PricingEngine(
+			final PricingRuleRepository pricingRuleRepository,
+			final ApplicationEventPublisher eventPublisher,
+			@Value("${app.pricing.refresh-interval:30s}") final Duration refreshInterval) {
+		this.pricingRuleRepository = pricingRuleRepository;
+		this.eventPublisher = eventPublisher;
+		this.refreshInterval = refreshInterval;
+	}
+
+	@PostConstruct
+	void start() {
+		this.refreshIfChanged();
+		this.scheduler.scheduleWithFixedDelay(this::refreshIfChanged,
+				this.refreshInterval.toMillis(), this.refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	void stop() {
+		this.scheduler.shutdownNow();
+	}
+
+	public PricingRules current() {
+		return this.current;
+	}
+
+	// Polls the rules version and recompiles only when a rule was added, changed or removed
+	public synchronized void refreshIfChanged() {
+		try {
+			final PricingRulesVersion latest = this.pricingRuleRepository.findVersion();
+			if (Objects.equals(latest, this.version))
+				return;
+			this.current = PricingRules.compile(this.pricingRuleRepository.findAll(), latest.generation());
+			this.version = latest;
+			log.info("*** Pricing rules compiled, {} rule(s) *", this.current.getRuleCount());
+			this.eventPublisher.publishEvent(new PricingRulesChangedEvent(this.current));
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Pricing rules refresh failed, keeping previous rules: {} *", e.getMessage());
+		}
+	}
+
+
+
+}
@@ -0,0 +1,209 @@
+package com.selimhorri.app.pricing;
+
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.selimhorri.app.domain.PricingAdjustmentType;
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.domain.PricingRuleScope;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.MoneyHelper;
+
+// Immutable lookup compiled from the pricing_rules rows. The most specific rule active at the given
+// time wins (SKU, then category, then global); within one target the latest started rule wins
+public final class PricingRules {
+
+	private static final Adjustment[] NONE = new Adjustment[0];
+	private static final PricingRules EMPTY = new PricingRules(Map.of(), Map.of(), NONE, 0, new long[0], 0L);
+
+	private final Map<String, Adjustment[]> bySku;
+	private final Map<Integer, Adjustment[]> byCategory;
+	private final Adjustment[] global;
+	private final int ruleCount;
+	// Sorted start/end instants of all time-boxed rules
+	private final long[] transitions;
+	// PricingRulesVersion generation the rules were compiled from, 0 when unknown
+	private final long generation;
+
+	private PricingRules(final Map<String, Adjustment[]> bySku, final Map<Integer, Adjustment[]> byCategory,
+			final Adjustment[] global, final int ruleCount, final long[] transitions, final long generation) {
+		this.bySku = bySku;
+		this.byCategory = byCategory;
+		this.global = global;
+		this.ruleCount = ruleCount;
+		this.transitions = transitions;
+		this.generation = generation;
+	}
+
+	public static PricingRules empty() {
+		return EMPTY;
+	}
+
+	public static PricingRules compile(final Collection<PricingRule> rules) {
+		return compile(rules, 0L);
+	}
+
+	public static PricingRules compile(final Collection<PricingRule> rules, final long generation) {
+		if (rules.isEmpty())
+			return EMPTY;
+		final Map<String, Adjustment[]> bySku = group(rules, PricingRuleScope.SKU, PricingRule::getSku);
+		final Map<Integer, Adjustment[]> byCategory = group(rules, PricingRuleScope.CATEGORY, PricingRule::getCategoryId);
+		final Adjustment[] global = rules.stream()
+				.filter(rule -> rule.getScope() == PricingRuleScope.GLOBAL)
+				.sorted(PRECEDENCE)
+				.map(Adjustment::new)
+				.toArray(Adjustment[]::new);
+		final long[] transitions = rules.stream()
+				.flatMap(rule -> Stream.of(rule.getStartsAt(), rule.getEndsAt()))
+				.filter(Objects::nonNull)
+				.mapToLong(Instant::toEpochMilli)
+				.distinct()
+				.sorted()
+				.toArray();
+		return new PricingRules(bySku, byCategory, global, rules.size(), transitions, generation);
+	}
+
+	public int getRuleCount() {
+		return this.ruleCount;
+	}
+
+	public boolean isEmpty() {
+		return this.ruleCount == 0;
+	}
+
+	public long getGeneration() {
+		return this.generation;
+	}
+
+	// Rewrites the DTO price in place, long arithmetic only, no per-product allocation
+	public ProductDto apply(final ProductDto productDto, final long nowMillis) {
+		final long priceUnit = productDto.getPriceUnit();
+		if (priceUnit == MoneyHelper.NO_PRICE || this.ruleCount == 0)
+			return productDto;
+		final Adjustment adjustment = this.find(productDto.getSku(),
+				productDto.getCategoryDto() == null ? null : productDto.getCategoryDto().getCategoryId(), nowMillis);
+		if (adjustment != null)
+			productDto.setPriceUnit(adjustment.applyTo(priceUnit));
+		return productDto;
+	}
+
+	// Prices in minor units, see MoneyHelper
+	public long price(final String sku, final Integer categoryId, final long basePrice, final long nowMillis) {
+		final Adjustment adjustment = this.find(sku, categoryId, nowMillis);
+		return adjustment == null ? basePrice : adjustment.applyTo(basePrice);
+	}
+
+	// Rule that decides the price, e.g. "CATEGORY:4" for rule 4; null when the base price applies
+	public String discountSource(final String sku, final Integer categoryId, final long nowMillis) {
+		final Adjustment adjustment = this.find(sku, categoryId, nowMillis);
+		return adjustment == null ? null : adjustment.source;
+	}
+
+	// Next instant after nowMillis at which some rule starts or ends, Long.MAX_VALUE if none
+	public long nextTransitionAfter(final long nowMillis) {
+		int index = Arrays.binarySearch(this.transitions, nowMillis);
+		index = index >= 0 ? index + 1 : -index - 1;
+		return index < this.transitions.length ? this.transitions[index] : Long.MAX_VALUE;
+	}
+
+	// Next instant after nowMillis at which a rule that can apply to this product starts or ends: until then
+	// price() and discountSource() give the same answer, Long.MAX_VALUE if no such rule is time-boxed
+	public long nextTransitionAfter(final String sku, final Integer categoryId, final long nowMillis) {
+		long next = nextBound(this.global, nowMillis);
+		if (sku != null)
+			next = Math.min(next, nextBound(this.bySku.get(sku), nowMillis));
+		if (categoryId != null)
+			next = Math.min(next, nextBound(this.byCategory.get(categoryId), nowMillis));
+		return next;
+	}
+
+	private Adjustment find(final String sku, final Integer categoryId, final long nowMillis) {
+		Adjustment adjustment = sku == null ? null : active(this.bySku.get(sku), nowMillis);
+		if (adjustment == null && categoryId != null)
+			adjustment = active(this.byCategory.get(categoryId), nowMillis);
+		return adjustment == null ? active(this.global, nowMillis) : adjustment;
+	}
+
+	private static long nextBound(final Adjustment[] candidates, final long nowMillis) {
+		long next = Long.MAX_VALUE;
+		if (candidates == null)
+			return next;
+		for (final Adjustment candidate : candidates) {
+			if (candidate.startsAt > nowMillis)
+				next = Math.min(next, candidate.startsAt);
+			if (candidate.endsAt > nowMillis)
+				next = Math.min(next, candidate.endsAt);
+		}
+		return next;
+	}
+
+	private static Adjustment active(final Adjustment[] candidates, final long nowMillis) {
+		if (candidates == null)
+			return null;
+		for (final Adjustment candidate : candidates)
+			if (candidate.startsAt <= nowMillis && nowMillis < candidate.endsAt)
+				return candidate;
+		return null;
+	}
+
+	private static final Comparator<PricingRule> PRECEDENCE = Comparator
+			.comparing((PricingRule rule) -> rule.getStartsAt() == null ? Long.MIN_VALUE : rule.getStartsAt().toEpochMilli())
+			.thenComparing(rule -> rule.getRuleId() == null ? Integer.MIN_VALUE : rule.getRuleId())
+			.reversed();
+
+	private static <K> Map<K, Adjustment[]> group(final Collection<PricingRule> rules, final PricingRuleScope scope,
+			final Function<PricingRule, K> key) {
+		final Map<K, List<PricingRule>> grouped = rules.stream()
+				.filter(rule -> rule.getScope() == scope && key.apply(rule) != null)
+				.collect(Collectors.groupingBy(key));
+		final Map<K, Adjustment[]> compiled = new HashMap<>(grouped.size() * 2);
+		grouped.forEach((k, targetRules) -> compiled.put(k, targetRules.stream()
+				.sorted(PRECEDENCE)
+				.map(Adjustment::new)
+				.toArray(Adjustment[]::new)));
+		return Map.copyOf(compiled);
+	}
+
+	private static final class Adjustment {
+
+		private static final long BASIS_POINTS = 10_000L;
+
+		private final long startsAt;
+		private final long endsAt;
+		private final boolean percentage;
+		// PERCENTAGE: share of the price kept, in basis points; FIXED: minor units off
+		private final long value;
+		private final String source;
+
+		private Adjustment(final PricingRule rule) {
+			this.source = rule.getScope() + ":" + rule.getRuleId();
+			this.startsAt = rule.getStartsAt() == null ? Long.MIN_VALUE : rule.getStartsAt().toEpochMilli();
+			this.endsAt = rule.getEndsAt() == null ? Long.MAX_VALUE : rule.getEndsAt().toEpochMilli();
+			this.percentage = rule.getAdjustmentType() == PricingAdjustmentType.PERCENTAGE;
+			// 20% off keeps 8000 of 10000 basis points, exactly
+			this.value = this.percentage
+					? BASIS_POINTS - rule.getAmount().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+					: MoneyHelper.toMinorUnits(rule.getAmount());
+		}
+
+		private long applyTo(final long price) {
+			return Math.max(0L, this.percentage
+					? MoneyHelper.multiply(price, this.value, BASIS_POINTS)
+					: price - this.value);
+		}
+
+	}
+
+
+
+}
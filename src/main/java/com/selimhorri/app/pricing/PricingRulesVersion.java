@@ -0,0 +1,30 @@
+package com.selimhorri.app.pricing;
+
+import java.time.Instant;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class PricingRulesVersion {
+	
+	private final Long ruleCount;
+	private final Integer maxRuleId;
+	private final Instant lastUpdatedAt;
+	
+	// Same rules table, same value on every instance; stamped on the rows EffectivePriceMaterializer writes
+	public long generation() {
+		long hash = 17L;
+		hash = 31L * hash + (this.ruleCount == null ? 0L : this.ruleCount);
+		hash = 31L * hash + (this.maxRuleId == null ? 0L : this.maxRuleId);
+		hash = 31L * hash + (this.lastUpdatedAt == null ? 0L : this.lastUpdatedAt.getEpochSecond());
+		hash = 31L * hash + (this.lastUpdatedAt == null ? 0L : this.lastUpdatedAt.getNano());
+		return hash;
+	}
+	
+}
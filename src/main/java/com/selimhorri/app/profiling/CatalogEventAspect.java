@@ -0,0 +1,69 @@
+package com.selimhorri.app.profiling;
+
+import java.util.Collection;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+
+import jdk.jfr.EventType;
+
+// Emits a CatalogOperationEvent per service call; while no recording wants it the cost is one
+// EventType.isEnabled() check, the event is only allocated once it is enabled
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class CatalogEventAspect {
+	
+	// Null in a native image, where JFR is off
+	private static final EventType EVENT_TYPE =
+			NativeDetector.inNativeImage() ? null : EventType.getEventType(CatalogOperationEvent.class);
+	
+	@Around("execution(public * com.selimhorri.app.service.impl.ProductServiceImpl.*(..))"
+			+ " || execution(public * com.selimhorri.app.service.impl.CategoryServiceImpl.*(..))")
+	public Object record(final ProceedingJoinPoint joinPoint) throws Throwable {
+		if (EVENT_TYPE == null || !EVENT_TYPE.isEnabled())
+			return joinPoint.proceed();
+		
+		final CatalogOperationEvent event = new CatalogOperationEvent();
+		event.begin();
+		Object result = null;
+		boolean success = false;
+		try {
+			result = joinPoint.proceed();
+			success = true;
+			return result;
+		}
+		finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.operation = joinPoint.getSignature().getDeclaringType().getSimpleName().replace("Impl", "")
+						+ "." + joinPoint.getSignature().getName();
+				event.entityId = entityId(joinPoint.getArgs(), result);
+				event.rowCount = result == null ? 0 : result instanceof Collection ? ((Collection<?>) result).size() : 1;
+				event.success = success;
+				event.commit();
+			}
+		}
+	}
+	
+	// findById/update/deleteById take the id first; save only knows it from the result
+	private static int entityId(final Object[] args, final Object result) {
+		if (args.length > 0 && args[0] instanceof Integer)
+			return (Integer) args[0];
+		final Integer id = result instanceof ProductDto
+				? ((ProductDto) result).getProductId()
+				: result instanceof CategoryDto ? ((CategoryDto) result).getCategoryId() : null;
+		return id == null ? 0 : id;
+	}
+	
+	
+	
+}
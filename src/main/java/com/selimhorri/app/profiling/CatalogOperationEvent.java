@@ -0,0 +1,31 @@
+package com.selimhorri.app.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One ProductService/CategoryService call, next to the JDK's own events in the recording
+@Name("com.selimhorri.app.CatalogOperation")
+@Label("Catalog Operation")
+@Category({"Product Service", "Catalog"})
+@Description("ProductService/CategoryService call with the entity it targeted and the rows it returned")
+@StackTrace(false)
+public class CatalogOperationEvent extends jdk.jfr.Event {
+	
+	@Label("Operation")
+	String operation;
+	
+	@Label("Entity Id")
+	@Description("Product or category id, 0 when the call is not about a single entity")
+	int entityId;
+	
+	@Label("Row Count")
+	@Description("Elements returned, 1 for a single entity, 0 for void calls")
+	int rowCount;
+	
+	@Label("Success")
+	boolean success;
+	
+}
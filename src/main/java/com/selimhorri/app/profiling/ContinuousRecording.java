@@ -0,0 +1,137 @@
+package com.selimhorri.app.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NativeDetector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+// Always-on JFR recording with the JDK "default" settings (about 1% overhead), kept on disk as a
+// ring buffer bounded by max-age and max-size; dump() writes out the tail of it
+@Component
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true")
+@Slf4j
+public class ContinuousRecording {
+	
+	private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+	
+	private final String settings;
+	private final Duration maxAge;
+	private final DataSize maxSize;
+	private final Duration catalogEventThreshold;
+	private final Path dumpDirectory;
+	private final int maxDumps;
+	private volatile Recording recording;
+	
+	public ContinuousRecording(
+			@Value("${app.jfr.settings:default}") final String settings,
+			@Value("${app.jfr.max-age:30m}") final Duration maxAge,
+			@Value("${app.jfr.max-size:256MB}") final DataSize maxSize,
+			@Value("${app.jfr.catalog-event-threshold:0ms}") final Duration catalogEventThreshold,
+			@Value("${app.jfr.dump-directory:${java.io.tmpdir}/product-service-jfr}") final Path dumpDirectory,
+			@Value("${app.jfr.max-dumps:3}") final int maxDumps) {
+		this.settings = settings;
+		this.maxAge = maxAge;
+		this.maxSize = maxSize;
+		this.catalogEventThreshold = catalogEventThreshold;
+		this.dumpDirectory = dumpDirectory;
+		this.maxDumps = Math.max(1, maxDumps);
+	}
+	
+	@PostConstruct
+	void start() {
+		// Checked at runtime: Spring AOT evaluates @Conditional on the build JVM
+		if (NativeDetector.inNativeImage()) {
+			log.info("*** Native image, continuous JFR recording is off *");
+			return;
+		}
+		if (!FlightRecorder.isAvailable()) {
+			log.warn("*** Flight Recorder is not available on this JVM, continuous recording is off *");
+			return;
+		}
+		try {
+			final Recording continuous = new Recording(Configuration.getConfiguration(this.settings));
+			continuous.setName("product-service-continuous");
+			continuous.setToDisk(true);
+			continuous.setMaxAge(this.maxAge);
+			continuous.setMaxSize(this.maxSize.toBytes());
+			continuous.enable(CatalogOperationEvent.class).withThreshold(this.catalogEventThreshold);
+			continuous.start();
+			this.recording = continuous;
+			log.info("*** Continuous JFR recording started, settings {}, max age {}, max size {} *",
+					this.settings, this.maxAge, this.maxSize);
+		}
+		catch (IOException | ParseException | IllegalStateException e) {
+			log.warn("*** Could not start the continuous JFR recording: {} *", e.getMessage());
+		}
+	}
+	
+	@PreDestroy
+	void stop() {
+		final Recording continuous = this.recording;
+		this.recording = null;
+		if (continuous != null)
+			continuous.close();
+	}
+	
+	public boolean isRecording() {
+		return this.recording != null;
+	}
+	
+	public Duration getMaxAge() {
+		return this.maxAge;
+	}
+	
+	// Copies the buffer, trims it to the last window (chunk granularity, chunks roll over every few
+	// MB or minutes) and writes it to the dump directory; the continuous recording keeps running. Only the
+	// newest max-dumps files are kept, so repeated calls can't fill the disk
+	public Path dump(final Duration window) throws IOException {
+		final Recording continuous = this.recording;
+		if (continuous == null)
+			throw new IllegalStateException("Continuous JFR recording is not running");
+		Files.createDirectories(this.dumpDirectory);
+		final Path file = this.dumpDirectory.resolve("product-service-" + FILE_TIMESTAMP.format(Instant.now()) + ".jfr");
+		try (Recording copy = continuous.copy(false)) {
+			copy.setMaxAge(window.compareTo(this.maxAge) < 0 ? window : this.maxAge);
+			copy.dump(file);
+		}
+		log.info("*** JFR dump of the last {} written to {} *", window, file);
+		this.deleteOldDumps();
+		return file;
+	}
+	
+	private void deleteOldDumps() throws IOException {
+		final List<Path> dumps;
+		try (Stream<Path> files = Files.list(this.dumpDirectory)) {
+			// Timestamped names sort oldest first
+			dumps = files.filter(path -> path.getFileName().toString().matches("product-service-.*\\.jfr"))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+		for (final Path old : dumps.subList(0, Math.max(0, dumps.size() - this.maxDumps)))
+			Files.deleteIfExists(old);
+	}
+	
+	
+	
+}
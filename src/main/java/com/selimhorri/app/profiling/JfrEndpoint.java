@@ -0,0 +1,53 @@
+package com.selimhorri.app.profiling;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+// GET /actuator/jfr: recording status. POST /actuator/jfr {"minutes": 5}: dumps the last 5 minutes
+// to a file on the container, fetch it with kubectl cp / docker cp. Writes to disk and has no auth of its
+// own: only exists with app.jfr.enabled, expose it on an internal management port
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class JfrEndpoint {
+	
+	private static final int DEFAULT_MINUTES = 5;
+	
+	private final ContinuousRecording continuousRecording;
+	
+	@ReadOperation
+	public Map<String, Object> status() {
+		final Map<String, Object> status = new LinkedHashMap<>();
+		status.put("recording", this.continuousRecording.isRecording());
+		status.put("maxAge", this.continuousRecording.getMaxAge().toString());
+		return status;
+	}
+	
+	@WriteOperation
+	public Map<String, Object> dump(@Nullable final Integer minutes) throws IOException {
+		final Duration window = Duration.ofMinutes(minutes == null || minutes < 1 ? DEFAULT_MINUTES : minutes);
+		final Path file = this.continuousRecording.dump(window);
+		final Map<String, Object> dump = new LinkedHashMap<>();
+		dump.put("file", file.toAbsolutePath().toString());
+		dump.put("bytes", Files.size(file));
+		dump.put("window", window.toString());
+		return dump;
+	}
+	
+	
+	
+}
@@ -0,0 +1,32 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.CatalogChange;
+
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT c FROM CatalogChange c WHERE c.changeId > :since ORDER BY c.changeId ASC")
+    List<CatalogChange> findChangesSince(@Param("since") Long since, Pageable pageable);
+
+    // One row per product currently in the category, in a single statement whatever its size
+    @Modifying
+    @Query(value = "INSERT INTO catalog_changes (entity_type, entity_id, change_type, changed_at, batch_id) "
+            + "SELECT 'PRODUCT', product_id, :changeType, :changedAt, :batchId FROM products WHERE category_id = :categoryId",
+            nativeQuery = true)
+    int insertProductChangesForCategory(@Param("categoryId") Integer categoryId,
+            @Param("changeType") String changeType, @Param("changedAt") Instant changedAt,
+            @Param("batchId") String batchId);
+
+    // Reads back exactly what one insertProductChangesForCategory wrote
+    @Query(value = "SELECT * FROM catalog_changes WHERE batch_id = :batchId ORDER BY change_id ASC", nativeQuery = true)
+    List<CatalogChange> findChangesByBatchId(@Param("batchId") String batchId);
+
+}
@@ -3,6 +3,7 @@ package com.selimhorri.app.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +23,9 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
     @Query("SELECT c FROM Category c WHERE LOWER(c.categoryTitle) NOT IN ('deleted', 'no category')")
     List<Category> findAllNonReserved();
 
+    @Query("SELECT c.categoryId FROM Category c WHERE LOWER(c.categoryTitle) NOT IN ('deleted', 'no category') ORDER BY c.categoryId")
+    List<Integer> findNonReservedIds(Pageable pageable);
+
     @Query("SELECT c FROM Category c WHERE c.categoryId = :id AND LOWER(c.categoryTitle) NOT IN ('deleted', 'no category')")
     Optional<Category> findNonReservedById(@Param("id") Integer id);
 
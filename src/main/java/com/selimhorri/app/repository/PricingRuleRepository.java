@@ -0,0 +1,15 @@
+package com.selimhorri.app.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.pricing.PricingRulesVersion;
+
+public interface PricingRuleRepository extends JpaRepository<PricingRule, Integer> {
+
+    // Cheap change detection: any insert, update or delete moves one of these
+    @Query("SELECT new com.selimhorri.app.pricing.PricingRulesVersion(COUNT(r), MAX(r.ruleId), MAX(r.updatedAt)) FROM PricingRule r")
+    PricingRulesVersion findVersion();
+
+}
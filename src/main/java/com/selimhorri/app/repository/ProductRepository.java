@@ -3,6 +3,7 @@ package com.selimhorri.app.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,20 +14,40 @@ import com.selimhorri.app.domain.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
-    @Query("SELECT p FROM Product p WHERE p.category.categoryTitle <> 'Deleted'")
+    // Category fetched in the same statement, otherwise every distinct category is one more select
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE c.categoryTitle <> 'Deleted'")
     List<Product> findAllWithoutDeleted();
 
-    @Query("SELECT p FROM Product p WHERE p.id = :productId AND p.category.categoryTitle <> 'Deleted'")
+    @Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE p.id = :productId AND c.categoryTitle <> 'Deleted'")
     Optional<Product> findByIdWithoutDeleted(Integer productId);
 
+    // Soft delete in one statement: moves the product to the reserved 'Deleted' category, 0 when the
+    // product does not exist or is already deleted
     @Modifying
-    @Query("UPDATE Product p SET p.category = :newCategory WHERE p.category.categoryId = :oldCategoryId")
+    @Query(value = "UPDATE products SET category_id = (SELECT c.category_id FROM categories c WHERE c.category_title = 'Deleted') "
+            + "WHERE product_id = :productId "
+            + "AND category_id <> (SELECT c.category_id FROM categories c WHERE c.category_title = 'Deleted')",
+            nativeQuery = true)
+    int softDeleteById(@Param("productId") Integer productId);
+
+    // Ids only and bounded by the page, e.g. StartupWarmup picking products to warm up
+    @Query("SELECT p.productId FROM Product p JOIN p.category c WHERE c.categoryTitle <> 'Deleted' ORDER BY p.productId")
+    List<Integer> findProductIdsWithoutDeleted(Pageable pageable);
+
+    @Query("SELECT p.productId FROM Product p WHERE p.category.categoryId = :categoryId")
+    List<Integer> findProductIdsByCategoryId(@Param("categoryId") Integer categoryId);
+
+    // Category rules may no longer apply: materialized prices of the moved products are invalidated
+    @Modifying
+    @Query("UPDATE Product p SET p.category = :newCategory, p.effectivePriceGeneration = NULL "
+            + "WHERE p.category.categoryId = :oldCategoryId")
     void updateCategoryForProducts(@Param("oldCategoryId") Integer oldCategoryId,
             @Param("newCategory") Category newCategory);
 
     // Otra opción (más eficiente para muchos productos):
     @Modifying
-    @Query("UPDATE Product p SET p.category.categoryId = :newCategoryId WHERE p.category.categoryId = :oldCategoryId")
+    @Query("UPDATE Product p SET p.category.categoryId = :newCategoryId, p.effectivePriceGeneration = NULL "
+            + "WHERE p.category.categoryId = :oldCategoryId")
     void updateCategoryIdForProducts(@Param("oldCategoryId") Integer oldCategoryId,
             @Param("newCategoryId") Integer newCategoryId);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.response.collection.ChangeFeedDtoResponse;
+import com.selimhorri.app.service.CatalogChangeService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/changes")
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogChangeResource {
+	
+	private final CatalogChangeService catalogChangeService;
+	
+	@GetMapping
+	public ResponseEntity<ChangeFeedDtoResponse> findChanges(
+			@RequestParam(name = "since", defaultValue = "0") final Long since,
+			@RequestParam(name = "limit", defaultValue = "100") final Integer limit) {
+		log.info("*** ChangeFeedDtoResponse, resource; fetch catalog changes since sequence *");
+		return ResponseEntity.ok(this.catalogChangeService.findChanges(since, limit));
+	}
+	
+	
+	
+}
@@ -0,0 +1,31 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selimhorri.app.service.CatalogStreamService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products/stream")
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogStreamResource {
+	
+	private final CatalogStreamService catalogStreamService;
+	
+	// No produces: with it, any other Accept header fell through to ProductResource /{productId} and
+	// failed parsing "stream". SseEmitter sets text/event-stream on the response itself
+	@GetMapping
+	public SseEmitter stream() {
+		log.info("*** SseEmitter, resource; stream catalog changes *");
+		return this.catalogStreamService.subscribe();
+	}
+	
+	
+	
+}
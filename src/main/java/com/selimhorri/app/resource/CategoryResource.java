@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -14,6 +16,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.cache.StaleReadCache;
+import com.selimhorri.app.concurrent.DbBulkhead;
+import com.selimhorri.app.concurrent.SingleFlight;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.CategoryService;
@@ -28,42 +33,53 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryResource {
 	
 	private final CategoryService categoryService;
+	private final DbBulkhead dbBulkhead;
+	private final SingleFlight singleFlight;
+	private final StaleReadCache staleReadCache;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<CategoryDto>> findAll() {
+	public CompletableFuture<ResponseEntity<DtoCollectionResponse<CategoryDto>>> findAll() {
 		log.info("*** CategoryDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.categoryService.findAll()));
+		return this.staleReadCache.read("categories.findAll", "all",
+						() -> this.singleFlight.execute("categories.findAll", "all",
+								() -> this.dbBulkhead.supply(this.categoryService::findAll)))
+				.thenApply(read -> read.toResponseEntity(categoryDtos -> new DtoCollectionResponse<>(categoryDtos)));
 	}
 	
 	@GetMapping("/{categoryId}")
-	public ResponseEntity<CategoryDto> findById(
+	public CompletableFuture<ResponseEntity<CategoryDto>> findById(
 			@PathVariable("categoryId") 
 			@NotBlank(message = "Input must not be blank") 
 			@Valid final String categoryId) {
 		log.info("*** CategoryDto, resource; fetch category by id *");
-		return ResponseEntity.ok(this.categoryService.findById(Integer.parseInt(categoryId)));
+		final int id = Integer.parseInt(categoryId);
+		return this.staleReadCache.read("categories.findById", id,
+						() -> this.dbBulkhead.supply(() -> this.categoryService.findById(id)))
+				.thenApply(read -> read.toResponseEntity(categoryDto -> categoryDto));
 	}
 	
 	@PostMapping
-	public ResponseEntity<CategoryDto> save(
+	public CompletableFuture<ResponseEntity<CategoryDto>> save(
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL") 
 			@Valid final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, resource; save category *");
-		return ResponseEntity.ok(this.categoryService.save(categoryDto));
+		return this.dbBulkhead.supply(() -> this.categoryService.save(categoryDto))
+				.thenApply(ResponseEntity::ok);
 	}
 	
 	@PutMapping
-	public ResponseEntity<CategoryDto> update(
+	public CompletableFuture<ResponseEntity<CategoryDto>> update(
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL") 
 			@Valid final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, resource; update category *");
-		return ResponseEntity.ok(this.categoryService.update(categoryDto));
+		return this.dbBulkhead.supply(() -> this.categoryService.update(categoryDto))
+				.thenApply(ResponseEntity::ok);
 	}
 	
 	@PutMapping("/{categoryId}")
-	public ResponseEntity<CategoryDto> update(
+	public CompletableFuture<ResponseEntity<CategoryDto>> update(
 			@PathVariable("categoryId")
 			@NotBlank(message = "Input must not be blank")
 			@Valid final String categoryId,
@@ -71,26 +87,21 @@ public class CategoryResource {
 			@NotNull(message = "Input must not be NULL") 
 			@Valid final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, resource; update category with categoryId *");
-		return ResponseEntity.ok(this.categoryService.update(Integer.parseInt(categoryId), categoryDto));
+		final int id = Integer.parseInt(categoryId);
+		return this.dbBulkhead.supply(() -> this.categoryService.update(id, categoryDto))
+				.thenApply(ResponseEntity::ok);
 	}
 	
 	@DeleteMapping("/{categoryId}")
-	public ResponseEntity<Boolean> deleteById(@PathVariable("categoryId") final String categoryId) {
+	public CompletableFuture<ResponseEntity<Boolean>> deleteById(@PathVariable("categoryId") final String categoryId) {
 		log.info("*** Boolean, resource; delete category by id *");
-		this.categoryService.deleteById(Integer.parseInt(categoryId));
-		return ResponseEntity.ok(true);
+		final int id = Integer.parseInt(categoryId);
+		return this.dbBulkhead.supply(() -> {
+			this.categoryService.deleteById(id);
+			return ResponseEntity.ok(true);
+		});
 	}
 	
 	
 	
 }
-
-
-
-
-
-
-
-
-
-
@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -14,6 +16,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.cache.StaleReadCache;
+import com.selimhorri.app.concurrent.DbBulkhead;
+import com.selimhorri.app.concurrent.SingleFlight;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.ProductService;
@@ -28,42 +33,54 @@ import lombok.extern.slf4j.Slf4j;
 public class ProductResource {
 	
 	private final ProductService productService;
+	private final DbBulkhead dbBulkhead;
+	private final SingleFlight singleFlight;
+	private final StaleReadCache staleReadCache;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll() {
+	public CompletableFuture<ResponseEntity<DtoCollectionResponse<ProductDto>>> findAll() {
 		log.info("*** ProductDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAll()));
+		return this.staleReadCache.read("products.findAll", "all",
+						() -> this.singleFlight.execute("products.findAll", "all",
+								() -> this.dbBulkhead.supply(this.productService::findAll)))
+				.thenApply(read -> read.toResponseEntity(productDtos -> new DtoCollectionResponse<>(productDtos)));
 	}
 	
 	@GetMapping("/{productId}")
-	public ResponseEntity<ProductDto> findById(
+	public CompletableFuture<ResponseEntity<ProductDto>> findById(
 			@PathVariable("productId") 
 			@NotBlank(message = "Input must not be blank!") 
 			@Valid final String productId) {
 		log.info("*** ProductDto, resource; fetch product by id *");
-		return ResponseEntity.ok(this.productService.findById(Integer.parseInt(productId)));
+		final int id = Integer.parseInt(productId);
+		return this.staleReadCache.read("products.findById", id,
+						() -> this.singleFlight.execute("products.findById", id,
+								() -> this.dbBulkhead.supply(() -> this.productService.findById(id))))
+				.thenApply(read -> read.toResponseEntity(productDto -> productDto));
 	}
 	
 	@PostMapping
-	public ResponseEntity<ProductDto> save(
+	public CompletableFuture<ResponseEntity<ProductDto>> save(
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL!") 
 			@Valid final ProductDto productDto) {
 		log.info("*** ProductDto, resource; save product *");
-		return ResponseEntity.ok(this.productService.save(productDto));
+		return this.dbBulkhead.supply(() -> this.productService.save(productDto))
+				.thenApply(ResponseEntity::ok);
 	}
 	
 	@PutMapping
-	public ResponseEntity<ProductDto> update(
+	public CompletableFuture<ResponseEntity<ProductDto>> update(
 			@RequestBody 
 			@NotNull(message = "Input must not be NULL!") 
 			@Valid final ProductDto productDto) {
 		log.info("*** ProductDto, resource; update product *");
-		return ResponseEntity.ok(this.productService.update(productDto));
+		return this.dbBulkhead.supply(() -> this.productService.update(productDto))
+				.thenApply(ResponseEntity::ok);
 	}
 	
 	@PutMapping("/{productId}")
-	public ResponseEntity<ProductDto> update(
+	public CompletableFuture<ResponseEntity<ProductDto>> update(
 			@PathVariable("productId")
 			@NotBlank(message = "Input must not be blank!")
 			@Valid final String productId,
@@ -71,26 +88,21 @@ public class ProductResource {
 			@NotNull(message = "Input must not be NULL!") 
 			@Valid final ProductDto productDto) {
 		log.info("*** ProductDto, resource; update product with productId *");
-		return ResponseEntity.ok(this.productService.update(Integer.parseInt(productId), productDto));
+		final int id = Integer.parseInt(productId);
+		return this.dbBulkhead.supply(() -> this.productService.update(id, productDto))
+				.thenApply(ResponseEntity::ok);
 	}
 	
 	@DeleteMapping("/{productId}")
-	public ResponseEntity<Boolean> deleteById(@PathVariable("productId") final String productId) {
+	public CompletableFuture<ResponseEntity<Boolean>> deleteById(@PathVariable("productId") final String productId) {
 		log.info("*** Boolean, resource; delete product by id *");
-		this.productService.deleteById(Integer.parseInt(productId));
-		return ResponseEntity.ok(true);
+		final int id = Integer.parseInt(productId);
+		return this.dbBulkhead.supply(() -> {
+			this.productService.deleteById(id);
+			return ResponseEntity.ok(true);
+		});
 	}
 	
 	
 	
 }
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,13 @@
+package com.selimhorri.app.service;
+
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
+import com.selimhorri.app.dto.response.collection.ChangeFeedDtoResponse;
+
+public interface CatalogChangeService {
+	
+	void record(final CatalogEntityType entityType, final Integer entityId, final CatalogChangeType changeType);
+	void recordProductsOfCategory(final Integer categoryId, final CatalogChangeType changeType);
+	ChangeFeedDtoResponse findChanges(final Long since, final Integer limit);
+	
+}
@@ -0,0 +1,95 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.selimhorri.app.domain.CatalogChange;
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
+import com.selimhorri.app.dto.CatalogChangeDto;
+import com.selimhorri.app.dto.response.collection.ChangeFeedDtoResponse;
+import com.selimhorri.app.event.CatalogChangeEvent;
+import com.selimhorri.app.helper.CatalogChangeMappingHelper;
+import com.selimhorri.app.repository.CatalogChangeRepository;
+import com.selimhorri.app.service.CatalogChangeService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogChangeServiceImpl implements CatalogChangeService {
+
+	static final int MAX_PAGE_SIZE = 1000;
+
+	private final CatalogChangeRepository catalogChangeRepository;
+	private final ApplicationEventPublisher eventPublisher;
+
+	// Must join the caller's write transaction: the change row commits or rolls back with the catalog write,
+	// and transactional listeners of the published event only run once that transaction has committed
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void record(final CatalogEntityType entityType, final Integer entityId, final CatalogChangeType changeType) {
+		final CatalogChange savedChange = this.catalogChangeRepository.save(CatalogChange.builder()
+				.entityType(entityType)
+				.entityId(entityId)
+				.changeType(changeType)
+				.changedAt(Instant.now())
+				.build());
+		this.eventPublisher.publishEvent(new CatalogChangeEvent(CatalogChangeMappingHelper.map(savedChange)));
+	}
+
+	// Same as record() for every product of the category, in a constant number of statements: one
+	// INSERT ... SELECT tagged with a fresh batch id, then the rows of that batch are read back for their sequences
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordProductsOfCategory(final Integer categoryId, final CatalogChangeType changeType) {
+		final String batchId = UUID.randomUUID().toString();
+		if (this.catalogChangeRepository.insertProductChangesForCategory(categoryId, changeType.name(), Instant.now(), batchId) == 0)
+			return;
+		this.catalogChangeRepository.findChangesByBatchId(batchId)
+				.forEach(savedChange -> this.eventPublisher
+						.publishEvent(new CatalogChangeEvent(CatalogChangeMappingHelper.map(savedChange))));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ChangeFeedDtoResponse findChanges(final Long since, final Integer limit) {
+		log.info("*** ChangeFeedDtoResponse, service; fetch catalog changes since sequence *");
+
+		if (since == null || since < 0) {
+			throw new IllegalArgumentException("Since must be a non-negative sequence number");
+		}
+
+		if (limit == null || limit < 1 || limit > MAX_PAGE_SIZE) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+		}
+
+		// Fetch one extra row to know whether another page exists without a COUNT query
+		final List<CatalogChange> changes = this.catalogChangeRepository
+				.findChangesSince(since, PageRequest.of(0, limit + 1));
+		final boolean hasMore = changes.size() > limit;
+
+		final List<CatalogChangeDto> page = changes.stream()
+				.limit(limit)
+				.map(CatalogChangeMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+
+		return ChangeFeedDtoResponse.builder()
+				.collection(page)
+				.nextSince(page.isEmpty() ? since : page.get(page.size() - 1).getSequence())
+				.hasMore(hasMore)
+				.build();
+	}
+
+}
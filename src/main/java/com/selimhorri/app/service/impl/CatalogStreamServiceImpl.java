@@ -0,0 +1,200 @@
+package com.selimhorri.app.service.impl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+import com.selimhorri.app.dto.CatalogChangeDto;
+import com.selimhorri.app.event.CatalogChangeEvent;
+import com.selimhorri.app.service.CatalogStreamService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogStreamServiceImpl implements CatalogStreamService {
+
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${app.stream.buffer-size:256}")
+	private int bufferSize;
+
+	@Value("${app.stream.timeout:30m}")
+	private Duration timeout;
+
+	@Value("${app.stream.heartbeat-interval:15s}")
+	private Duration heartbeatInterval;
+
+	@Value("${app.stream.sender-threads:4}")
+	private int senderThreads;
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+	private ObjectMapper compactMapper;
+	private ExecutorService senderExecutor;
+	private ScheduledExecutorService heartbeatScheduler;
+	private Counter droppedCounter;
+
+	@PostConstruct
+	void start() {
+		// SSE frames are line based, so payloads must not use the indented output of the shared mapper
+		this.compactMapper = this.objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+		this.senderExecutor = Executors.newFixedThreadPool(this.senderThreads, new NamedThreadFactory("catalog-stream-sender-"));
+		this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("catalog-stream-heartbeat-"));
+		this.heartbeatScheduler.scheduleAtFixedRate(this::heartbeat,
+				this.heartbeatInterval.toMillis(), this.heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+		this.droppedCounter = Counter.builder("catalog.stream.dropped")
+				.description("Change events dropped because a subscriber buffer was full")
+				.register(this.meterRegistry);
+		this.meterRegistry.gauge("catalog.stream.subscribers", this.subscribers, Set::size);
+	}
+
+	@PreDestroy
+	void stop() {
+		this.heartbeatScheduler.shutdownNow();
+		this.senderExecutor.shutdownNow();
+		this.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		this.subscribers.clear();
+	}
+
+	@Override
+	public SseEmitter subscribe() {
+		log.info("*** SseEmitter, service; subscribe to catalog change stream *");
+		final SseEmitter emitter = new SseEmitter(this.timeout.toMillis());
+		final Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(this.bufferSize));
+		emitter.onCompletion(() -> this.subscribers.remove(subscriber));
+		emitter.onTimeout(() -> this.subscribers.remove(subscriber));
+		emitter.onError(e -> this.subscribers.remove(subscriber));
+		this.subscribers.add(subscriber);
+		return emitter;
+	}
+
+	// Runs on the committing thread, so it only hands the event to each subscriber buffer and never blocks
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCatalogChange(final CatalogChangeEvent event) {
+		this.subscribers.forEach(subscriber -> subscriber.enqueue(event.getChange()));
+	}
+
+	private void heartbeat() {
+		this.subscribers.forEach(Subscriber::requestHeartbeat);
+	}
+
+	private final class Subscriber {
+
+		private static final long NO_RESYNC = -1L;
+
+		private final SseEmitter emitter;
+		private final BlockingQueue<CatalogChangeDto> buffer;
+		private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+		private final AtomicBoolean draining = new AtomicBoolean();
+		// Written by the sender only, after the change has been sent
+		private volatile long lastSequence;
+		// Guarded by this: overflow and poll must not interleave, or events queued after the overflow could be
+		// sent before the resync and move lastSequence past the gap
+		private volatile long resyncSince = NO_RESYNC;
+
+		private Subscriber(final SseEmitter emitter, final BlockingQueue<CatalogChangeDto> buffer) {
+			this.emitter = emitter;
+			this.buffer = buffer;
+		}
+
+		private void enqueue(final CatalogChangeDto change) {
+			synchronized (this) {
+				if (!this.buffer.offer(change)) {
+					// Slow client: drop what it has not consumed and tell it to resync from the change feed,
+					// starting after the last change it actually received
+					droppedCounter.increment(this.buffer.size() + 1);
+					this.buffer.clear();
+					if (this.resyncSince == NO_RESYNC)
+						this.resyncSince = this.lastSequence;
+				}
+			}
+			this.scheduleDrain();
+		}
+
+		private void requestHeartbeat() {
+			this.heartbeatDue.set(true);
+			this.scheduleDrain();
+		}
+
+		private void scheduleDrain() {
+			if (this.draining.compareAndSet(false, true)) {
+				senderExecutor.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				while (true) {
+					final long since;
+					final CatalogChangeDto change;
+					synchronized (this) {
+						since = this.resyncSince;
+						this.resyncSince = NO_RESYNC;
+						// Nothing queued is delivered before a pending resync
+						change = since == NO_RESYNC ? this.buffer.poll() : null;
+					}
+					if (since != NO_RESYNC) {
+						this.emitter.send(SseEmitter.event()
+								.name("resync")
+								.data(compactMapper.writeValueAsString(Map.of("since", since))));
+						continue;
+					}
+					if (change == null)
+						break;
+					this.emitter.send(SseEmitter.event()
+							.id(String.valueOf(change.getSequence()))
+							.name("change")
+							.data(compactMapper.writeValueAsString(change)));
+					this.lastSequence = change.getSequence();
+				}
+				if (this.heartbeatDue.getAndSet(false)) {
+					this.emitter.send(SseEmitter.event().comment("keep-alive"));
+				}
+			}
+			catch (JsonProcessingException e) {
+				log.error("Unable to serialize catalog change event", e);
+			}
+			catch (IOException | IllegalStateException e) {
+				subscribers.remove(this);
+				this.emitter.completeWithError(e);
+				return;
+			}
+			finally {
+				this.draining.set(false);
+			}
+			if (!this.buffer.isEmpty() || this.resyncSince != NO_RESYNC || this.heartbeatDue.get()) {
+				this.scheduleDrain();
+			}
+		}
+
+	}
+
+}
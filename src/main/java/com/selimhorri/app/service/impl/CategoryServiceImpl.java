@@ -3,16 +3,18 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.helper.CategoryMappingHelper;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CatalogChangeService;
 import com.selimhorri.app.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
@@ -26,8 +28,10 @@ public class CategoryServiceImpl implements CategoryService {
 
 	private final CategoryRepository categoryRepository;
 	private final ProductRepository productRepository;
+	private final CatalogChangeService catalogChangeService;
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<CategoryDto> findAll() {
 		return this.categoryRepository.findAllNonReserved()
 				.stream()
@@ -36,6 +40,7 @@ public class CategoryServiceImpl implements CategoryService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public CategoryDto findById(final Integer categoryId) {
 		return this.categoryRepository.findNonReservedById(categoryId)
 				.map(CategoryMappingHelper::map)
@@ -65,8 +70,10 @@ public class CategoryServiceImpl implements CategoryService {
 		categoryDto.setCategoryId(null);
 
 		// Guardar y mapear a DTO
-		return CategoryMappingHelper.map(
+		final CategoryDto savedCategoryDto = CategoryMappingHelper.map(
 				this.categoryRepository.save(CategoryMappingHelper.map(categoryDto)));
+		this.catalogChangeService.record(CatalogEntityType.CATEGORY, savedCategoryDto.getCategoryId(), CatalogChangeType.CREATED);
+		return savedCategoryDto;
 	}
 
 	@Override
@@ -105,7 +112,9 @@ public class CategoryServiceImpl implements CategoryService {
 		existingCategory.setParentCategory(null);
 		existingCategory.setSubCategories(null);
 
-		return CategoryMappingHelper.map(this.categoryRepository.save(existingCategory));
+		final CategoryDto updatedCategoryDto = CategoryMappingHelper.map(this.categoryRepository.save(existingCategory));
+		this.catalogChangeService.record(CatalogEntityType.CATEGORY, updatedCategoryDto.getCategoryId(), CatalogChangeType.UPDATED);
+		return updatedCategoryDto;
 	}
 
 	@Override
@@ -144,7 +153,9 @@ public class CategoryServiceImpl implements CategoryService {
 		existingCategory.setSubCategories(null);
 
 		// No necesitamos mapear el DTO a entidad porque trabajamos con la existente
-		return CategoryMappingHelper.map(this.categoryRepository.save(existingCategory));
+		final CategoryDto updatedCategoryDto = CategoryMappingHelper.map(this.categoryRepository.save(existingCategory));
+		this.catalogChangeService.record(CatalogEntityType.CATEGORY, updatedCategoryDto.getCategoryId(), CatalogChangeType.UPDATED);
+		return updatedCategoryDto;
 	}
 
 	@Override
@@ -169,11 +180,15 @@ public class CategoryServiceImpl implements CategoryService {
 				.orElseThrow(() -> new IllegalStateException(
 						"The 'No Category' category is required but not found in database"));
 
-		// 4. Migrar todos los productos a "No Category"
+		// 4. Registrar los productos movidos en el change feed (antes de moverlos) y migrarlos a "No Category"
+		this.catalogChangeService.recordProductsOfCategory(categoryId, CatalogChangeType.UPDATED);
 		this.productRepository.updateCategoryForProducts(categoryId, noCategory);
 
 		// 5. Eliminar la categoría
 		this.categoryRepository.delete(category);
+
+		// 6. Registrar la baja en el change feed
+		this.catalogChangeService.record(CatalogEntityType.CATEGORY, categoryId, CatalogChangeType.DELETED);
 	}
 
 }
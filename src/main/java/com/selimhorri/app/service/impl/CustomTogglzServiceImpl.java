@@ -43,7 +43,8 @@ public class CustomTogglzServiceImpl implements CustomTogglzService {
     @Override
     public TogglzDtoResponse toggleFeature(String featureName, TogglzFeatureDto dto) {
         Feature feature = new NamedFeature(featureName);
-        FeatureState state = featureManager.getFeatureState(feature);
+        // The state repository hands out shared cached instances, never mutate them in place
+        FeatureState state = featureManager.getFeatureState(feature).copy();
 
         state.setEnabled(dto.isEnabled());
 
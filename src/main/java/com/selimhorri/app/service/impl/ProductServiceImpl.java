@@ -3,18 +3,22 @@ package com.selimhorri.app.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import javax.transaction.Transactional;
-
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.helper.MoneyHelper;
 import com.selimhorri.app.helper.ProductMappingHelper;
+import com.selimhorri.app.pricing.PricingEngine;
+import com.selimhorri.app.pricing.PricingRules;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CatalogChangeService;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,23 +38,25 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
 	private final CategoryRepository categoryRepository;
+	private final CatalogChangeService catalogChangeService;
+	private final PricingEngine pricingEngine;
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<ProductDto> findAll() {
 		log.info("*** ProductDto List, service; fetch all products *");
-        List<Product> products = this.productRepository.findAllWithoutDeleted();
-
-        if (manager.isActive(DISCOUNT_APPLIED)) {
-            products = applyDiscount(products);
-        }
+        final List<Product> products = this.productRepository.findAllWithoutDeleted();
+        final PricingRules pricing = this.currentPricing();
+        final long now = System.currentTimeMillis();
 
         return products.stream()
-            .map(ProductMappingHelper::map)
+            .map(product -> this.price(product, pricing, now))
             .distinct()
             .collect(Collectors.toUnmodifiableList());
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public ProductDto findById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
         Product product = this.productRepository.findByIdWithoutDeleted(productId)
@@ -58,11 +64,7 @@ public class ProductServiceImpl implements ProductService {
                         String.format("Product with id: %d not found", productId)
             ));
 
-        Product processed = manager.isActive(DISCOUNT_APPLIED)
-                ? applyDiscount(product)
-                : product;
-
-		return ProductMappingHelper.map(processed);
+		return this.price(product, this.currentPricing(), System.currentTimeMillis());
 	}
 
 	@Override
@@ -82,9 +84,7 @@ public class ProductServiceImpl implements ProductService {
 			throw new IllegalArgumentException("El SKU es requerido");
 		}
 
-		if (productDto.getPriceUnit() == null) {
-			throw new IllegalArgumentException("El precio unitario es requerido");
-		}
+		requirePrice(productDto);
 
 		if (productDto.getQuantity() == null) {
 			throw new IllegalArgumentException("La cantidad es requerida");
@@ -100,8 +100,10 @@ public class ProductServiceImpl implements ProductService {
 				.orElseThrow(() -> new CategoryNotFoundException("Categoría no encontrada con ID: " + categoryId));
 
 		productDto.setProductId(null);
-		return ProductMappingHelper.map(this.productRepository
+		final ProductDto savedProductDto = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(productDto)));
+		this.catalogChangeService.record(CatalogEntityType.PRODUCT, savedProductDto.getProductId(), CatalogChangeType.CREATED);
+		return savedProductDto;
 	}
 
 	@Override
@@ -112,9 +114,12 @@ public class ProductServiceImpl implements ProductService {
 		if (productDto.getProductId() == null || !productRepository.existsById(productDto.getProductId())) {
 			throw new ProductNotFoundException("Producto no encontrado con ID: " + productDto.getProductId());
 		}
+		requirePrice(productDto);
 
-		return ProductMappingHelper.map(this.productRepository
+		final ProductDto updatedProductDto = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(productDto)));
+		this.catalogChangeService.record(CatalogEntityType.PRODUCT, updatedProductDto.getProductId(), CatalogChangeType.UPDATED);
+		return updatedProductDto;
 	}
 
 	@Override
@@ -124,61 +129,63 @@ public class ProductServiceImpl implements ProductService {
 		// Verificar que el producto exista
 		Product existingProduct = productRepository.findById(productId)
 				.orElseThrow(() -> new ProductNotFoundException("Producto no encontrado con ID: " + productId));
+		requirePrice(productDto);
 
 		// Actualizar los campos del producto existente con los del DTO
 		Product updatedProduct = ProductMappingHelper.map(productDto);
 		updatedProduct.setProductId(existingProduct.getProductId()); // Asegurar que se mantiene el mismo ID
 
-		return ProductMappingHelper.map(this.productRepository.save(updatedProduct));
+		final ProductDto updatedProductDto = ProductMappingHelper.map(this.productRepository.save(updatedProduct));
+		this.catalogChangeService.record(CatalogEntityType.PRODUCT, updatedProductDto.getProductId(), CatalogChangeType.UPDATED);
+		return updatedProductDto;
 	}
 
 	@Override
 	public void deleteById(final Integer productId) {
 		log.info("*** Void, service; soft delete product by id *");
 
-		// 1. Verificar si el producto existe
-		Product product = this.productRepository.findByIdWithoutDeleted(productId)
-				.orElseThrow(() -> new ProductNotFoundException("Product with id: " + productId + " not found"));
-
-		// 2. Buscar la categoría "Deleted"
-		Category deletedCategory = this.categoryRepository.findByCategoryTitle("Deleted")
-				.orElseThrow(() -> new RuntimeException("Category 'Deleted' not found in database"));
-
-		// 3. Actualizar la categoría del producto a "Deleted" (soft delete)
-		product.setCategory(deletedCategory);
-		this.productRepository.save(product);
+		// Mover el producto a la categoría "Deleted" (soft delete) en un solo UPDATE
+		if (this.productRepository.softDeleteById(productId) == 0)
+			throw new ProductNotFoundException("Product with id: " + productId + " not found");
+		this.catalogChangeService.record(CatalogEntityType.PRODUCT, productId, CatalogChangeType.DELETED);
 	}
     
-	private Product applyDiscount(Product product) {
-		if (product == null) {
-			return null;
-		}
+	// Pricing rules only apply while the DISCOUNT_APPLIED toggle is on
+	private PricingRules currentPricing() {
+		return this.manager.isActive(DISCOUNT_APPLIED)
+				? this.pricingEngine.current()
+				: PricingRules.empty();
+	}
 
-		Double price = product.getPriceUnit();
-		if (price == null) {
-			return product;
+	// price_unit is NOT NULL (V11), a missing price is a client error rather than a constraint violation.
+	// On the PUT paths this is an API change: they used to store the product without a price
+	private static void requirePrice(final ProductDto productDto) {
+		if (productDto.getPriceUnit() == MoneyHelper.NO_PRICE) {
+			throw new IllegalArgumentException("El precio unitario es requerido");
 		}
-
-		Double discounted = price * 0.8d;
-
-		return Product.builder()
-				.productId(product.getProductId())
-				.productTitle(product.getProductTitle())
-				.imageUrl(product.getImageUrl())
-				.sku(product.getSku())
-				.priceUnit(discounted)
-				.quantity(product.getQuantity())
-				.category(product.getCategory())
-				.build();
 	}
 
-	private List<Product> applyDiscount(List<Product> products) {
-		if (products == null) {
-			return null;
+	// Reads the price precomputed by EffectivePriceMaterializer; falls back to evaluating the rules
+	// while the materializer has not caught up with a product, rule or rule window change yet
+	private ProductDto price(final Product product, final PricingRules pricing, final long now) {
+		final ProductDto productDto = ProductMappingHelper.map(product);
+		if (pricing.isEmpty())
+			return productDto;
+		if (isMaterialized(product, pricing, now)) {
+			productDto.setPriceUnit(product.getEffectivePrice());
+			return productDto;
 		}
+		return pricing.apply(productDto, now);
+	}
 
-		return products.stream()
-				.map(this::applyDiscount)
-				.collect(Collectors.toUnmodifiableList());
+	// Computed from this base price, with these rules, and no rule window has opened or closed since
+	private static boolean isMaterialized(final Product product, final PricingRules pricing, final long now) {
+		return product.getEffectivePrice() != null
+				&& product.getEffectivePriceBase() != null
+				&& product.getEffectivePriceBase() == product.getPriceUnit()
+				&& product.getEffectivePriceGeneration() != null
+				&& product.getEffectivePriceGeneration() == pricing.getGeneration()
+				&& product.getEffectivePriceValidUntil() != null
+				&& now < product.getEffectivePriceValidUntil();
 	}
 }
@@ -0,0 +1,72 @@
+package com.selimhorri.app.startup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+// fast-startup profile: marks the beans of the UI-only integrations (Thymeleaf, springdoc, Togglz console)
+// lazy, so they are created on the first request that needs them instead of during startup. Unlike
+// spring.main.lazy-initialization the rest of the context, the request path included, stays eager.
+// Beans matched by app.startup.lazy-beans on their class, @Bean return type or declaring configuration class
+@Component
+@Profile("fast-startup")
+@Slf4j
+public class SelectiveLazyInitPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+	
+	private static final String[] DEFAULT_PATTERNS = {
+			".*\\.thymeleaf\\..*",
+			"org\\.springdoc\\..*",
+			"org\\.togglz\\.console\\..*", ".*TogglzConsole.*" };
+	
+	private List<Pattern> patterns;
+	
+	@Override
+	public void setEnvironment(final Environment environment) {
+		this.patterns = Arrays.stream(environment.getProperty("app.startup.lazy-beans", String[].class, DEFAULT_PATTERNS))
+				.map(Pattern::compile)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	public void postProcessBeanFactory(final ConfigurableListableBeanFactory beanFactory) {
+		int lazy = 0;
+		for (final String beanName : beanFactory.getBeanDefinitionNames()) {
+			final BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+			if (!definition.isLazyInit() && this.matches(definition)) {
+				definition.setLazyInit(true);
+				lazy++;
+			}
+		}
+		log.info("*** fast-startup: {} bean(s) set to lazy initialization *", lazy);
+	}
+	
+	private boolean matches(final BeanDefinition definition) {
+		if (this.matches(definition.getBeanClassName()))
+			return true;
+		if (!(definition instanceof AnnotatedBeanDefinition))
+			return false;
+		final MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+		return factoryMethod != null
+				&& (this.matches(factoryMethod.getReturnTypeName()) || this.matches(factoryMethod.getDeclaringClassName()));
+	}
+	
+	private boolean matches(final String className) {
+		return className != null && this.patterns.stream().anyMatch(pattern -> pattern.matcher(className).matches());
+	}
+	
+	
+	
+}
@@ -0,0 +1,83 @@
+package com.selimhorri.app.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+// Time from JVM start to ready (context, runners and the warm-up included) plus the slowest bean
+// instantiations from the startup timeline; the full per-bean timeline is on GET /actuator/startup.
+// app.startup.exit-after-ready stops the JVM right here, used by the AppCDS training run in the Dockerfile
+@Component
+@Slf4j
+public class StartupReport {
+	
+	private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+	
+	private final MeterRegistry meterRegistry;
+	private final int slowestBeans;
+	private final boolean exitAfterReady;
+	
+	public StartupReport(
+			final MeterRegistry meterRegistry,
+			@Value("${app.startup.report-slowest-beans:10}") final int slowestBeans,
+			@Value("${app.startup.exit-after-ready:false}") final boolean exitAfterReady) {
+		this.meterRegistry = meterRegistry;
+		this.slowestBeans = slowestBeans;
+		this.exitAfterReady = exitAfterReady;
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady(final ApplicationReadyEvent event) {
+		
+		final long timeToReady = ManagementFactory.getRuntimeMXBean().getUptime();
+		TimeGauge.builder("startup.time.to.ready", () -> timeToReady, TimeUnit.MILLISECONDS)
+				.description("Time from JVM start until the application was ready to take traffic")
+				.register(this.meterRegistry);
+		log.info("*** Ready {} ms after JVM start *", timeToReady);
+		
+		final ConfigurableApplicationContext context = event.getApplicationContext();
+		if (this.slowestBeans > 0 && context.getApplicationStartup() instanceof BufferingApplicationStartup)
+			this.logSlowestBeans((BufferingApplicationStartup) context.getApplicationStartup());
+		
+		if (this.exitAfterReady) {
+			log.info("*** app.startup.exit-after-ready set, shutting down *");
+			System.exit(SpringApplication.exit(context));
+		}
+	}
+	
+	// Durations include the dependencies created while instantiating the bean
+	private void logSlowestBeans(final BufferingApplicationStartup applicationStartup) {
+		applicationStartup.getBufferedTimeline().getEvents().stream()
+				.filter(timelineEvent -> BEAN_INSTANTIATE.equals(timelineEvent.getStartupStep().getName()))
+				.sorted(Comparator.comparing(TimelineEvent::getDuration).reversed())
+				.limit(this.slowestBeans)
+				.forEach(timelineEvent -> log.info("*** Bean {} instantiated in {} ms *",
+						beanName(timelineEvent.getStartupStep()), timelineEvent.getDuration().toMillis()));
+	}
+	
+	private static String beanName(final StartupStep step) {
+		return StreamSupport.stream(step.getTags().spliterator(), false)
+				.filter(tag -> "beanName".equals(tag.getKey()))
+				.map(StartupStep.Tag::getValue)
+				.findFirst()
+				.orElse("?");
+	}
+	
+	
+	
+}
@@ -0,0 +1,215 @@
+package com.selimhorri.app.warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+// Runs before the instance takes traffic: ApplicationRunners finish before Boot flips readiness to
+// ACCEPTING_TRAFFIC, and Eureka registers as STARTING (eureka.instance.initial-status) until this is done.
+// Drives the real HTTP read paths (JIT, Jackson, stale cache entries for the hot products and categories,
+// Hikari connections) and the repository queries of the write paths (Hibernate query plans), bounded by
+// app.warmup.time-budget; a failed or slow warm-up still lets the instance come up
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+	
+	private final ProductRepository productRepository;
+	private final CategoryRepository categoryRepository;
+	private final TransactionTemplate readOnlyTransaction;
+	private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+	private final Environment environment;
+	private final MeterRegistry meterRegistry;
+	private final boolean enabled;
+	private final Duration timeBudget;
+	private final int iterations;
+	private final int threads;
+	private final int hotProducts;
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(2))
+			.build();
+	private final AtomicInteger rounds = new AtomicInteger();
+	private final AtomicInteger errors = new AtomicInteger();
+	
+	public StartupWarmup(
+			final ProductRepository productRepository,
+			final CategoryRepository categoryRepository,
+			final PlatformTransactionManager transactionManager,
+			final ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+			final Environment environment,
+			final MeterRegistry meterRegistry,
+			@Value("${app.warmup.enabled:true}") final boolean enabled,
+			@Value("${app.warmup.time-budget:30s}") final Duration timeBudget,
+			@Value("${app.warmup.iterations:50}") final int iterations,
+			@Value("${app.warmup.threads:4}") final int threads,
+			@Value("${app.warmup.hot-products:100}") final int hotProducts) {
+		this.productRepository = productRepository;
+		this.categoryRepository = categoryRepository;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.applicationInfoManager = applicationInfoManager;
+		this.environment = environment;
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.timeBudget = timeBudget;
+		this.iterations = iterations;
+		this.threads = threads;
+		this.hotProducts = hotProducts;
+	}
+	
+	@Override
+	public void run(final ApplicationArguments args) {
+		try {
+			if (this.enabled)
+				this.warmUp();
+		}
+		finally {
+			this.applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceStatus.UP));
+		}
+	}
+	
+	private void warmUp() {
+		final long start = System.nanoTime();
+		final long deadline = start + this.timeBudget.toNanos();
+		final String baseUrl = this.baseUrl();
+		String outcome = "completed";
+		try {
+			// Lowest ids stand in for the hot ones; two bounded id-only queries, never the full product list
+			final PageRequest hot = PageRequest.of(0, this.hotProducts);
+			final List<Integer> productIds = this.readOnlyTransaction.execute(
+					status -> this.productRepository.findProductIdsWithoutDeleted(hot));
+			final List<Integer> categoryIds = this.readOnlyTransaction.execute(
+					status -> this.categoryRepository.findNonReservedIds(hot));
+			final ExecutorService workers = Executors.newFixedThreadPool(this.threads, new NamedThreadFactory("warmup-"));
+			for (int worker = 0; worker < this.threads; worker++) {
+				final int offset = worker;
+				workers.execute(() -> {
+					for (int i = offset; i < this.iterations * this.threads && System.nanoTime() < deadline; i += this.threads)
+						this.round(baseUrl, i, productIds, categoryIds);
+				});
+			}
+			workers.shutdown();
+			if (!workers.awaitTermination(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+				workers.shutdownNow();
+				outcome = "timed_out";
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			outcome = "interrupted";
+		}
+		catch (RuntimeException e) {
+			log.warn("*** Warm-up failed, starting cold: {} *", e.getMessage());
+			outcome = "failed";
+		}
+		final long elapsed = System.nanoTime() - start;
+		Timer.builder("startup.warmup")
+				.description("Time spent warming up before reporting ready")
+				.tag("outcome", outcome)
+				.register(this.meterRegistry)
+				.record(elapsed, TimeUnit.NANOSECONDS);
+		Counter.builder("startup.warmup.rounds")
+				.description("Warm-up rounds run before reporting ready")
+				.register(this.meterRegistry)
+				.increment(this.rounds.get());
+		Counter.builder("startup.warmup.errors")
+				.description("Warm-up calls that failed")
+				.register(this.meterRegistry)
+				.increment(this.errors.get());
+		log.info("*** Warm-up {} in {} ms, {} rounds, {} errors *", outcome,
+				TimeUnit.NANOSECONDS.toMillis(elapsed), this.rounds.get(), this.errors.get());
+	}
+	
+	// One pass over the read endpoints and the queries behind the write endpoints
+	private void round(final String baseUrl, final int i, final List<Integer> productIds, final List<Integer> categoryIds) {
+		final Integer productId = productIds.isEmpty() ? null : productIds.get(i % productIds.size());
+		final Integer categoryId = categoryIds.isEmpty() ? null : categoryIds.get(i % categoryIds.size());
+		try {
+			if (baseUrl != null) {
+				this.get(baseUrl + "/api/categories");
+				if (productId != null)
+					this.get(baseUrl + "/api/products/" + productId);
+				if (categoryId != null)
+					this.get(baseUrl + "/api/categories/" + categoryId);
+			}
+			this.readOnlyTransaction.executeWithoutResult(status -> {
+				if (productId != null) {
+					this.productRepository.existsById(productId);
+					this.productRepository.findById(productId);
+				}
+				if (categoryId != null) {
+					this.productRepository.findProductIdsByCategoryId(categoryId);
+					this.categoryRepository.findById(categoryId);
+					this.categoryRepository.existsByCategoryTitleIgnoreCaseAndCategoryIdNot("warm-up", categoryId);
+				}
+				this.categoryRepository.existsByCategoryTitleIgnoreCase("warm-up");
+				this.categoryRepository.findByCategoryTitleIgnoreCase("No Category");
+			});
+			this.rounds.incrementAndGet();
+		}
+		catch (RuntimeException e) {
+			this.errors.incrementAndGet();
+			log.debug("*** Warm-up round failed: {} *", e.getMessage());
+		}
+	}
+	
+	private void get(final String url) {
+		try {
+			final HttpResponse<Void> response = this.httpClient.send(
+					HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(10)).GET().build(),
+					HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() != 200)
+				throw new IllegalStateException("GET " + url + " answered " + response.statusCode());
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("GET " + url + " failed: " + e.getMessage(), e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted during warm-up", e);
+		}
+	}
+	
+	// Null without an embedded server (e.g. MOCK web environment tests): only the queries are warmed
+	private String baseUrl() {
+		final String port = this.environment.getProperty("local.server.port");
+		return port == null
+				? null
+				: "http://localhost:" + port + this.environment.getProperty("server.servlet.context-path", "");
+	}
+	
+	
+	
+}
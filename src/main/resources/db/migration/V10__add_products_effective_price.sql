@@ -0,0 +1,5 @@
+-- Maintained by EffectivePriceMaterializer: price after pricing rules, the price_unit it was computed from
+-- (a mismatch means the product changed since) and the deciding rule, e.g. 'CATEGORY:4'
+ALTER TABLE products ADD COLUMN effective_price DECIMAL(7,2) NULL;
+ALTER TABLE products ADD COLUMN effective_price_base DECIMAL(7,2) NULL;
+ALTER TABLE products ADD COLUMN discount_source VARCHAR(64) NULL;
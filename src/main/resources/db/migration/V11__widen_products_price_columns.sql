@@ -0,0 +1,19 @@
+-- Prices are handled as long minor units (MoneyHelper); DECIMAL(7,2) capped them at 99,999.99.
+-- 13 digits keep price * 10,000 basis points within a long
+-- MODIFY COLUMN is MySQL only and ALTER COLUMN ... <type> is H2 only, so each column is rebuilt
+-- with add/copy/drop/rename, which MySQL 8 and H2 both accept
+ALTER TABLE products ADD COLUMN price_unit_wide DECIMAL(13,2) NOT NULL DEFAULT 0;
+UPDATE products SET price_unit_wide = price_unit WHERE price_unit IS NOT NULL;
+ALTER TABLE products ALTER COLUMN price_unit_wide DROP DEFAULT;
+ALTER TABLE products DROP COLUMN price_unit;
+ALTER TABLE products RENAME COLUMN price_unit_wide TO price_unit;
+
+ALTER TABLE products ADD COLUMN effective_price_wide DECIMAL(13,2) NULL;
+UPDATE products SET effective_price_wide = effective_price;
+ALTER TABLE products DROP COLUMN effective_price;
+ALTER TABLE products RENAME COLUMN effective_price_wide TO effective_price;
+
+ALTER TABLE products ADD COLUMN effective_price_base_wide DECIMAL(13,2) NULL;
+UPDATE products SET effective_price_base_wide = effective_price_base;
+ALTER TABLE products DROP COLUMN effective_price_base;
+ALTER TABLE products RENAME COLUMN effective_price_base_wide TO effective_price_base;
@@ -0,0 +1,5 @@
+-- A materialized price is only served while it was computed from the current pricing rules
+-- (PricingRulesVersion generation) and before the next start/end of a rule that can apply to the product.
+-- Saves through the entity write NULL into effective_price_generation, invalidating the row until recomputed
+ALTER TABLE products ADD COLUMN effective_price_generation BIGINT NULL;
+ALTER TABLE products ADD COLUMN effective_price_valid_until BIGINT NULL;
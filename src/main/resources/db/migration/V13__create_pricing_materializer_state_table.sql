@@ -0,0 +1,11 @@
+-- EffectivePriceMaterializer full runs: only the instance holding the lease runs them, and the
+-- rules generation / validity of the last finished run lets the others (and restarts) skip them
+CREATE TABLE pricing_materializer_state (
+  id INT NOT NULL PRIMARY KEY,
+  lease_owner VARCHAR(64) NULL,
+  lease_until BIGINT NOT NULL,
+  generation BIGINT NULL,
+  valid_until BIGINT NULL
+);
+
+INSERT INTO pricing_materializer_state (id, lease_until) VALUES (1, 0);
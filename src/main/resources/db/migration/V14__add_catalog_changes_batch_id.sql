@@ -0,0 +1,4 @@
+-- Rows written together by one INSERT ... SELECT (CatalogChangeService.recordProductsOfCategory) share a batch id,
+-- so they can be read back exactly; NULL for rows recorded one by one
+ALTER TABLE catalog_changes ADD COLUMN batch_id VARCHAR(36) NULL;
+CREATE INDEX idx_catalog_changes_batch_id ON catalog_changes (batch_id);
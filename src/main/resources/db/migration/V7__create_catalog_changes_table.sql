@@ -0,0 +1,7 @@
+CREATE TABLE catalog_changes (
+  change_id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  entity_type VARCHAR(32) NOT NULL,
+  entity_id INT NOT NULL,
+  change_type VARCHAR(32) NOT NULL,
+  changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
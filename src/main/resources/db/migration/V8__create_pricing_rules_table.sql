@@ -0,0 +1,15 @@
+CREATE TABLE pricing_rules (
+  rule_id INT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  scope VARCHAR(16) NOT NULL,
+  category_id INT NULL,
+  sku VARCHAR(255) NULL,
+  adjustment_type VARCHAR(16) NOT NULL,
+  amount DECIMAL(9,2) NOT NULL,
+  starts_at TIMESTAMP NULL DEFAULT NULL,
+  ends_at TIMESTAMP NULL DEFAULT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Former hardcoded DISCOUNT_APPLIED behaviour: 20% off every product
+INSERT INTO pricing_rules (scope, adjustment_type, amount) VALUES ('GLOBAL', 'PERCENTAGE', 20.00);
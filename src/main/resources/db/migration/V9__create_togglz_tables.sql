@@ -0,0 +1,15 @@
+-- Layout expected by Togglz' JDBCStateRepository
+CREATE TABLE togglz (
+  FEATURE_NAME VARCHAR(100) NOT NULL PRIMARY KEY,
+  FEATURE_ENABLED INTEGER,
+  STRATEGY_ID VARCHAR(200),
+  STRATEGY_PARAMS VARCHAR(2000)
+);
+
+-- Bumped on every flip, nodes poll it to know when to reload their cached states
+CREATE TABLE togglz_version (
+  id INT NOT NULL PRIMARY KEY,
+  version BIGINT NOT NULL
+);
+
+INSERT INTO togglz_version (id, version) VALUES (1, 0);
@@ -0,0 +1,30 @@
+package com.selimhorri.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.config.togglz.TogglzStateConfig;
+
+// Read-only WebFlux/R2DBC entry point, only built with -Preactive (src/reactive). Kept outside
+// com.selimhorri.app so ProductServiceApplication never scans it. Toggle states come from the same togglz
+// table as the servlet side (TogglzStateConfig), so both apply the same DISCOUNT_APPLIED
+@SpringBootApplication
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Import({ MapperConfig.class, TogglzStateConfig.class })
+public class ReactiveReadApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveReadApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.properties("spring.config.name=reactive")
+				.run(args);
+	}
+	
+	
+	
+}
@@ -0,0 +1,31 @@
+package com.selimhorri.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// DataSourceAutoConfiguration backs off once an R2DBC ConnectionFactory exists, but the Togglz state poll
+// (TogglzStateConfig) and Flyway in dev still need JDBC, so spring.datasource is bound here
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class TogglzDataSourceConfig {
+	
+	@Bean
+	public HikariDataSource dataSource(
+			final DataSourceProperties dataSourceProperties,
+			@Value("${spring.datasource.hikari.maximum-pool-size:1}") final int maximumPoolSize) {
+		final HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.build();
+		dataSource.setPoolName("togglz");
+		dataSource.setMaximumPoolSize(maximumPoolSize);
+		return dataSource;
+	}
+	
+	
+	
+}
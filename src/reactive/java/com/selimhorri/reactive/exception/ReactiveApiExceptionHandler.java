@@ -0,0 +1,61 @@
+package com.selimhorri.reactive.exception;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import com.selimhorri.app.exception.payload.ExceptionMsg;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@ControllerAdvice
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Slf4j
+public class ReactiveApiExceptionHandler {
+
+	@ExceptionHandler(value = {
+			IllegalArgumentException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleBadRequestException(final T e) {
+
+		log.info("**ReactiveApiExceptionHandler controller, handle API request*\n");
+		final var badRequest = HttpStatus.BAD_REQUEST;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(badRequest)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				badRequest);
+	}
+
+	@ExceptionHandler(value = {
+			CategoryNotFoundException.class,
+			ProductNotFoundException.class
+	})
+	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
+
+		log.info("**ReactiveApiExceptionHandler controller, handle API request*\n");
+		final var notFound = HttpStatus.NOT_FOUND;
+
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+						.msg("#### " + e.getMessage() + "! ####")
+						.httpStatus(notFound)
+						.timestamp(ZonedDateTime
+								.now(ZoneId.systemDefault()))
+						.build(),
+				notFound);
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.selimhorri.reactive.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.selimhorri.app.domain.PricingAdjustmentType;
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.domain.PricingRuleScope;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.MoneyHelper;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCatalogRepository {
+
+	// Same filters as ProductRepository/CategoryRepository, the inner join mirrors the implicit JPQL join
+	private static final String PRODUCT_SELECT = "SELECT p.product_id, p.product_title, p.image_url, p.sku, p.price_unit, p.quantity, "
+			+ "c.category_id, c.category_title, c.image_url AS category_image_url "
+			+ "FROM products p JOIN categories c ON c.category_id = p.category_id "
+			+ "WHERE c.category_title <> 'Deleted'";
+
+	private static final String CATEGORY_SELECT = "SELECT c.category_id, c.category_title, c.image_url "
+			+ "FROM categories c WHERE LOWER(c.category_title) NOT IN ('deleted', 'no category')";
+
+	private static final String PRICING_RULE_SELECT = "SELECT rule_id, scope, category_id, sku, adjustment_type, amount, starts_at, ends_at "
+			+ "FROM pricing_rules";
+
+	private final DatabaseClient databaseClient;
+
+	public Flux<ProductDto> findAllWithoutDeleted() {
+		return this.databaseClient.sql(PRODUCT_SELECT)
+				.map((row, metadata) -> mapProduct(row))
+				.all();
+	}
+
+	public Mono<ProductDto> findByIdWithoutDeleted(final Integer productId) {
+		return this.databaseClient.sql(PRODUCT_SELECT + " AND p.product_id = :productId")
+				.bind("productId", productId)
+				.map((row, metadata) -> mapProduct(row))
+				.one();
+	}
+
+	public Flux<CategoryDto> findAllNonReserved() {
+		return this.databaseClient.sql(CATEGORY_SELECT)
+				.map((row, metadata) -> CategoryDto.builder()
+						.categoryId(row.get("category_id", Integer.class))
+						.categoryTitle(row.get("category_title", String.class))
+						.imageUrl(row.get("image_url", String.class))
+						.build())
+				.all();
+	}
+
+	public Flux<PricingRule> findPricingRules() {
+		return this.databaseClient.sql(PRICING_RULE_SELECT)
+				.map((row, metadata) -> {
+					final LocalDateTime startsAt = row.get("starts_at", LocalDateTime.class);
+					final LocalDateTime endsAt = row.get("ends_at", LocalDateTime.class);
+					return PricingRule.builder()
+							.ruleId(row.get("rule_id", Integer.class))
+							.scope(PricingRuleScope.valueOf(row.get("scope", String.class)))
+							.categoryId(row.get("category_id", Integer.class))
+							.sku(row.get("sku", String.class))
+							.adjustmentType(PricingAdjustmentType.valueOf(row.get("adjustment_type", String.class)))
+							.amount(row.get("amount", BigDecimal.class))
+							.startsAt(startsAt == null ? null : startsAt.atZone(ZoneId.systemDefault()).toInstant())
+							.endsAt(endsAt == null ? null : endsAt.atZone(ZoneId.systemDefault()).toInstant())
+							.build();
+				})
+				.all();
+	}
+
+	private static ProductDto mapProduct(final Row row) {
+		return ProductDto.builder()
+				.productId(row.get("product_id", Integer.class))
+				.productTitle(row.get("product_title", String.class))
+				.imageUrl(row.get("image_url", String.class))
+				.sku(row.get("sku", String.class))
+				.priceUnit(MoneyHelper.toMinorUnits(row.get("price_unit", BigDecimal.class)))
+				.quantity(row.get("quantity", Integer.class))
+				.categoryDto(CategoryDto.builder()
+						.categoryId(row.get("category_id", Integer.class))
+						.categoryTitle(row.get("category_title", String.class))
+						.imageUrl(row.get("category_image_url", String.class))
+						.build())
+				.build();
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.selimhorri.reactive.resource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.reactive.repository.ReactiveCatalogRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/categories")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveCategoryResource {
+	
+	private final ReactiveCatalogRepository reactiveCatalogRepository;
+	
+	@GetMapping
+	public Mono<DtoCollectionResponse<CategoryDto>> findAll() {
+		return this.reactiveCatalogRepository.findAllNonReserved()
+				.collectList()
+				.map(categoryDtos -> new DtoCollectionResponse<>(categoryDtos));
+	}
+	
+	
+	
+}
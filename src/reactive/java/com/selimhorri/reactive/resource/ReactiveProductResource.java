@@ -0,0 +1,75 @@
+package com.selimhorri.reactive.resource;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.togglz.core.manager.FeatureManager;
+
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.pricing.PricingRules;
+import com.selimhorri.reactive.repository.ReactiveCatalogRepository;
+import com.selimhorri.app.service.impl.ProductServiceImpl;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/products")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveProductResource {
+	
+	private final ReactiveCatalogRepository reactiveCatalogRepository;
+	private final FeatureManager manager;
+	// Compiled once per refresh interval, like PricingEngine on the servlet side; a failed load is not cached,
+	// the next request retries it
+	private final Mono<PricingRules> pricingRules;
+	
+	public ReactiveProductResource(
+			final ReactiveCatalogRepository reactiveCatalogRepository,
+			final FeatureManager manager,
+			@Value("${app.pricing.refresh-interval:30s}") final Duration refreshInterval) {
+		this.reactiveCatalogRepository = reactiveCatalogRepository;
+		this.manager = manager;
+		this.pricingRules = reactiveCatalogRepository.findPricingRules()
+				.collectList()
+				.map(PricingRules::compile)
+				.cache(rules -> refreshInterval, e -> Duration.ZERO, () -> refreshInterval);
+	}
+	
+	@GetMapping
+	public Mono<DtoCollectionResponse<ProductDto>> findAll() {
+		return this.currentPricing().flatMap(pricing -> {
+			final long now = System.currentTimeMillis();
+			return this.reactiveCatalogRepository.findAllWithoutDeleted()
+					.map(productDto -> pricing.apply(productDto, now))
+					.collectList()
+					.map(productDtos -> new DtoCollectionResponse<>(productDtos));
+		});
+	}
+	
+	@GetMapping("/{productId}")
+	public Mono<ProductDto> findById(@PathVariable("productId") final String productId) {
+		final int id = Integer.parseInt(productId);
+		return this.currentPricing().flatMap(pricing -> this.reactiveCatalogRepository.findByIdWithoutDeleted(id)
+				.map(productDto -> pricing.apply(productDto, System.currentTimeMillis())))
+				.switchIfEmpty(Mono.error(() -> new ProductNotFoundException(
+						String.format("Product with id: %d not found", id))));
+	}
+	
+	// Same gate as ProductServiceImpl: rules only apply while DISCOUNT_APPLIED is on
+	private Mono<PricingRules> currentPricing() {
+		return this.manager.isActive(ProductServiceImpl.DISCOUNT_APPLIED)
+				? this.pricingRules
+				: Mono.just(PricingRules.empty());
+	}
+	
+	
+	
+}
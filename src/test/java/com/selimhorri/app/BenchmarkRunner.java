@@ -0,0 +1,24 @@
+package com.selimhorri.app;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs every *Benchmark under src/test (or the ones matching -Djmh.include) with the gc profiler and
+// writes JSON results, e.g. mvn -Pbenchmark test-compile exec:exec -Djmh.result=target/jmh/0.1.0.json
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(System.getProperty("jmh.include", "com\\.selimhorri\\.app\\..*Benchmark"))
+				.addProfiler("gc")
+				.resultFormat(ResultFormatType.JSON)
+				.result(System.getProperty("jmh.result", "target/jmh-result.json"))
+				.build()).run();
+	}
+
+}
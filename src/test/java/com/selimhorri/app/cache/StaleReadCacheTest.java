@@ -0,0 +1,109 @@
+package com.selimhorri.app.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("StaleReadCache Tests")
+class StaleReadCacheTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+	private StaleReadCache staleReadCache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+		staleReadCache = new StaleReadCache(true, 10, Duration.ofHours(1), Duration.ofSeconds(1),
+				circuitBreakerRegistry, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		staleReadCache.shutdown();
+	}
+
+	@Test
+	@DisplayName("Should serve the last good value with its age when the database fails")
+	void testRead_DatabaseFailureServesStale() throws Exception {
+		// Given
+		staleReadCache.read("products.findById", 1, () -> CompletableFuture.completedFuture("laptop")).get();
+
+		// When
+		CachedRead<String> read = staleReadCache.read("products.findById", 1,
+				() -> CompletableFuture.<String>failedFuture(new DataAccessResourceFailureException("connection refused"))).get();
+
+		// Then
+		assertTrue(read.isStale());
+		assertEquals("laptop", read.getValue());
+		assertEquals(1.0, meterRegistry.get("catalog.stale.served").tag("operation", "products.findById").counter().count());
+		assertEquals("110 - \"Response is Stale\"", read.toResponseEntity(value -> value).getHeaders().getFirst("Warning"));
+	}
+
+	@Test
+	@DisplayName("Should propagate failures that are not database outages")
+	void testRead_NotFoundIsNotMasked() throws Exception {
+		// Given
+		staleReadCache.read("products.findById", 2, () -> CompletableFuture.completedFuture("phone")).get();
+
+		// When
+		CompletableFuture<CachedRead<String>> read = staleReadCache.read("products.findById", 2,
+				() -> CompletableFuture.failedFuture(new ProductNotFoundException("Product with id: 2 not found")));
+
+		// Then
+		ExecutionException failure = assertThrows(ExecutionException.class, read::get);
+		assertTrue(failure.getCause() instanceof ProductNotFoundException);
+	}
+
+	@Test
+	@DisplayName("Should answer from cache while the breaker is open and refresh in the background")
+	void testRead_OpenCircuitServesStaleAndRefreshes() throws Exception {
+		// Given
+		staleReadCache.read("products.findAll", "all", () -> CompletableFuture.completedFuture("v1")).get();
+		circuitBreakerRegistry.circuitBreaker("productService").transitionToOpenState();
+		AtomicInteger loads = new AtomicInteger();
+		CompletableFuture<Void> refreshed = new CompletableFuture<>();
+
+		// When
+		CachedRead<String> read = staleReadCache.read("products.findAll", "all", () -> {
+			loads.incrementAndGet();
+			refreshed.complete(null);
+			return CompletableFuture.completedFuture("v2");
+		}).get();
+		refreshed.get(5, TimeUnit.SECONDS);
+
+		// Then
+		assertTrue(read.isStale());
+		assertEquals("v1", read.getValue());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	@DisplayName("Should fail as usual when nothing was cached yet")
+	void testRead_NoEntryPropagatesFailure() {
+		CompletableFuture<CachedRead<String>> read = staleReadCache.read("categories.findAll", "all",
+				() -> CompletableFuture.failedFuture(new DataAccessResourceFailureException("connection refused")));
+
+		ExecutionException failure = assertThrows(ExecutionException.class, read::get);
+		assertTrue(failure.getCause() instanceof DataAccessResourceFailureException);
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.selimhorri.app.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("AdaptiveConcurrencyLimiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	private AdaptiveConcurrencyLimiter limiter(int initialLimit) {
+		return new AdaptiveConcurrencyLimiter(true, initialLimit, 1, 100, 2.0, meterRegistry);
+	}
+
+	// Fills the limit and completes every call with the same latency
+	private void fullWave(AdaptiveConcurrencyLimiter limiter, long rttMillis) {
+		int acquired = 0;
+		while (limiter.tryAcquire())
+			acquired++;
+		for (int i = 0; i < acquired; i++)
+			limiter.release(rttMillis, TimeUnit.MILLISECONDS, false);
+	}
+
+	@Test
+	@DisplayName("Should shed calls beyond the current limit and count them")
+	void testTryAcquire_ShedsBeyondLimit() {
+		// Given
+		AdaptiveConcurrencyLimiter limiter = limiter(2);
+
+		// When & Then
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+		assertEquals(2, limiter.getInflight());
+		assertEquals(1.0, meterRegistry.get("db.concurrency.rejected").counter().count());
+
+		limiter.release();
+		assertTrue(limiter.tryAcquire());
+	}
+
+	@Test
+	@DisplayName("Should back off multiplicatively when a call fails")
+	void testRelease_DropBacksOff() {
+		// Given
+		AdaptiveConcurrencyLimiter limiter = limiter(10);
+		limiter.tryAcquire();
+
+		// When
+		limiter.release(5, TimeUnit.MILLISECONDS, true);
+
+		// Then
+		assertEquals(9, limiter.getLimit());
+		assertEquals(0, limiter.getInflight());
+	}
+
+	@Test
+	@DisplayName("Should grow while latency is stable and shrink when latency climbs")
+	void testRelease_FollowsLatencyGradient() {
+		// Given
+		AdaptiveConcurrencyLimiter limiter = limiter(10);
+
+		// When
+		for (int i = 0; i < 5; i++)
+			fullWave(limiter, 10);
+		int grown = limiter.getLimit();
+		for (int i = 0; i < 5; i++)
+			fullWave(limiter, 200);
+
+		// Then
+		assertTrue(grown > 10, "limit should grow under stable latency, was " + grown);
+		assertTrue(limiter.getLimit() < grown, "limit should shrink once latency climbs, was " + limiter.getLimit());
+		assertEquals((double) limiter.getLimit(), meterRegistry.get("db.concurrency.limit").gauge().value());
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.selimhorri.app.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.selimhorri.app.cache.StaleReadCache;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.exception.ApiExceptionHandler;
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
+import com.selimhorri.app.resource.ProductResource;
+import com.selimhorri.app.service.ProductService;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("DbBulkhead Tests")
+class DbBulkheadTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch release = new CountDownLatch(1);
+	private DbBulkhead dbBulkhead;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		dbBulkhead.shutdown();
+	}
+
+	// One worker held on the latch and one task queued behind it: the next submission is rejected
+	private void saturate(final CountDownLatch running) {
+		dbBulkhead.supply(() -> {
+			running.countDown();
+			await(release);
+			return "running";
+		});
+		dbBulkhead.supply(() -> "queued");
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	@DisplayName("Should fail the future with ServiceUnavailableException and count it when saturated")
+	void testSupply_SaturatedFailsFuture() throws Exception {
+		// Given
+		dbBulkhead = new DbBulkhead(true, 1, 1, meterRegistry);
+		CountDownLatch running = new CountDownLatch(1);
+		saturate(running);
+		running.await(5, TimeUnit.SECONDS);
+
+		// When
+		CompletableFuture<String> rejected = dbBulkhead.supply(() -> "rejected");
+
+		// Then
+		ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+		assertTrue(failure.getCause() instanceof ServiceUnavailableException);
+		assertEquals(1.0, meterRegistry.get("db.bulkhead.rejected").counter().count());
+		assertEquals(1.0, meterRegistry.get("db.bulkhead.active").gauge().value());
+		assertEquals(1.0, meterRegistry.get("db.bulkhead.queue.size").gauge().value());
+	}
+
+	@Test
+	@DisplayName("Should record the queue wait of every task it runs")
+	void testSupply_RecordsWait() throws Exception {
+		// Given
+		dbBulkhead = new DbBulkhead(true, 1, 1, meterRegistry);
+
+		// When
+		String first = dbBulkhead.supply(() -> "first").get(5, TimeUnit.SECONDS);
+		String second = dbBulkhead.supply(() -> "second").get(5, TimeUnit.SECONDS);
+
+		// Then
+		assertEquals("first", first);
+		assertEquals("second", second);
+		assertEquals(2, meterRegistry.get("db.bulkhead.wait").timer().count());
+		assertEquals(0.0, meterRegistry.get("db.bulkhead.queue.size").gauge().value());
+	}
+
+	@Test
+	@DisplayName("Should run inline on the calling thread when async mode is disabled")
+	void testSupply_DisabledRunsInline() throws Exception {
+		// Given
+		dbBulkhead = new DbBulkhead(false, 1, 1, meterRegistry);
+		Thread caller = Thread.currentThread();
+
+		// When
+		CompletableFuture<Thread> ranOn = dbBulkhead.supply(Thread::currentThread);
+		CompletableFuture<String> failed = dbBulkhead.supply(() -> {
+			throw new IllegalStateException("boom");
+		});
+
+		// Then
+		assertTrue(ranOn.isDone());
+		assertEquals(caller, ranOn.get());
+		assertTrue(failed.isCompletedExceptionally());
+		assertEquals(0, meterRegistry.get("db.bulkhead.wait").timer().count());
+	}
+
+	@Test
+	@DisplayName("Should answer 503 when a read hits the saturated bulkhead")
+	void testSupply_SaturatedAnswers503() throws Exception {
+		// Given
+		dbBulkhead = new DbBulkhead(true, 1, 1, meterRegistry);
+		ProductService productService = mock(ProductService.class);
+		when(productService.findById(1)).thenReturn(ProductDto.builder().productId(1).build());
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProductResource(productService, dbBulkhead,
+						new SingleFlight(false, Duration.ofSeconds(1), meterRegistry),
+						new StaleReadCache(false, 10, Duration.ofHours(1), Duration.ofSeconds(1),
+								CircuitBreakerRegistry.ofDefaults(), meterRegistry)))
+				.setControllerAdvice(new ApiExceptionHandler())
+				.build();
+		CountDownLatch running = new CountDownLatch(1);
+		saturate(running);
+		running.await(5, TimeUnit.SECONDS);
+
+		// When
+		MvcResult result = mockMvc.perform(get("/api/products/1")).andReturn();
+
+		// Then
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isServiceUnavailable());
+	}
+
+}
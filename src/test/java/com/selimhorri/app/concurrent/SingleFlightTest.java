@@ -0,0 +1,110 @@
+package com.selimhorri.app.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private SingleFlight singleFlight;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		singleFlight = new SingleFlight(true, Duration.ofMillis(200), meterRegistry);
+	}
+
+	@Test
+	@DisplayName("Should share one in-flight load between concurrent callers with the same key")
+	void testExecute_CoalescesSameKey() throws Exception {
+		// Given
+		AtomicInteger loads = new AtomicInteger();
+		CompletableFuture<String> load = new CompletableFuture<>();
+
+		// When
+		CompletableFuture<String> first = singleFlight.execute("products.findById", 1, () -> {
+			loads.incrementAndGet();
+			return load;
+		});
+		CompletableFuture<String> second = singleFlight.execute("products.findById", 1, () -> {
+			loads.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		load.complete("laptop");
+
+		// Then
+		assertEquals("laptop", first.get());
+		assertEquals("laptop", second.get());
+		assertEquals(1, loads.get());
+		assertEquals(1.0, meterRegistry.get("catalog.reads.coalesced").tag("operation", "products.findById").counter().count());
+	}
+
+	@Test
+	@DisplayName("Should not coalesce different keys or calls after the load completed")
+	void testExecute_DistinctKeysAndSequentialCalls() throws Exception {
+		// When
+		String first = singleFlight.execute("products.findById", 1, () -> CompletableFuture.completedFuture("a")).get();
+		String second = singleFlight.execute("products.findById", 2, () -> CompletableFuture.completedFuture("b")).get();
+		String third = singleFlight.execute("products.findById", 1, () -> CompletableFuture.completedFuture("c")).get();
+
+		// Then
+		assertEquals("a", first);
+		assertEquals("b", second);
+		assertEquals("c", third);
+	}
+
+	@Test
+	@DisplayName("Should propagate the leader failure to every coalesced caller")
+	void testExecute_PropagatesFailure() {
+		// Given
+		CompletableFuture<String> load = new CompletableFuture<>();
+		CompletableFuture<String> first = singleFlight.execute("products.findById", 9, () -> load);
+		CompletableFuture<String> second = singleFlight.execute("products.findById", 9, () -> load);
+
+		// When
+		load.completeExceptionally(new ProductNotFoundException("Product with id: 9 not found"));
+
+		// Then
+		ExecutionException leaderFailure = assertThrows(ExecutionException.class, first::get);
+		ExecutionException followerFailure = assertThrows(ExecutionException.class, second::get);
+		assertTrue(leaderFailure.getCause() instanceof ProductNotFoundException);
+		assertTrue(followerFailure.getCause() instanceof ProductNotFoundException);
+	}
+
+	@Test
+	@DisplayName("Should time out coalesced callers without cancelling the shared load")
+	void testExecute_FollowerTimeout() throws Exception {
+		// Given
+		CompletableFuture<String> load = new CompletableFuture<>();
+		CompletableFuture<String> first = singleFlight.execute("products.findAll", "all", () -> load);
+		CompletableFuture<String> second = singleFlight.execute("products.findAll", "all", () -> load);
+
+		// When & Then
+		ExecutionException failure = assertThrows(ExecutionException.class, second::get);
+		assertTrue(failure.getCause() instanceof ServiceUnavailableException);
+		assertFalse(first.isDone());
+		assertNotSame(first, second);
+
+		load.complete("catalog");
+		assertEquals("catalog", first.get());
+	}
+
+}
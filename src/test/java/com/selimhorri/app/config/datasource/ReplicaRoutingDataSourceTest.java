@@ -0,0 +1,109 @@
+package com.selimhorri.app.config.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ReplicaRoutingDataSource Tests")
+class ReplicaRoutingDataSourceTest {
+
+	private JdbcTemplate primaryJdbc;
+	private JdbcTemplate replicaJdbc;
+	private ReplicaLagMonitor lagMonitor;
+	private JdbcTemplate routedJdbc;
+	private TransactionTemplate readWriteTx;
+	private TransactionTemplate readOnlyTx;
+
+	@BeforeEach
+	void setUp() {
+		DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1", "sa", "");
+		DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1", "sa", "");
+		primaryJdbc = new JdbcTemplate(primary);
+		replicaJdbc = new JdbcTemplate(replica);
+		primaryJdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+		primaryJdbc.execute("INSERT INTO node VALUES ('primary')");
+		replicaJdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+		replicaJdbc.execute("INSERT INTO node VALUES ('replica')");
+		replicaJdbc.execute("CREATE TABLE replica_status (lag_seconds INT)");
+		replicaJdbc.execute("INSERT INTO replica_status VALUES (0)");
+
+		lagMonitor = new ReplicaLagMonitor(Map.of("replica-0", replica), "SELECT lag_seconds FROM replica_status",
+				"lag_seconds", Duration.ofSeconds(5), new SimpleMeterRegistry());
+		lagMonitor.checkNow();
+
+		DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, lagMonitor));
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		routedJdbc = new JdbcTemplate(routing);
+		readWriteTx = new TransactionTemplate(transactionManager);
+		readOnlyTx = new TransactionTemplate(transactionManager);
+		readOnlyTx.setReadOnly(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		primaryJdbc.execute("DROP ALL OBJECTS");
+		replicaJdbc.execute("DROP ALL OBJECTS");
+	}
+
+	private String currentNode(TransactionTemplate tx) {
+		return tx.execute(status -> routedJdbc.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	@Test
+	@DisplayName("Should send read-only transactions to the replica and everything else to the primary")
+	void testRouting_ReadOnlyGoesToReplica() {
+		assertTrue(lagMonitor.isHealthy("replica-0"));
+		assertEquals("replica", currentNode(readOnlyTx));
+		assertEquals("primary", currentNode(readWriteTx));
+		assertEquals("primary", routedJdbc.queryForObject("SELECT name FROM node", String.class));
+	}
+
+	@Test
+	@DisplayName("Should fall back to the primary while the replica lags beyond the budget")
+	void testRouting_LaggingReplicaFallsBack() {
+		// Given
+		replicaJdbc.update("UPDATE replica_status SET lag_seconds = 30");
+
+		// When
+		lagMonitor.checkNow();
+
+		// Then
+		assertFalse(lagMonitor.isHealthy("replica-0"));
+		assertEquals("primary", currentNode(readOnlyTx));
+
+		replicaJdbc.update("UPDATE replica_status SET lag_seconds = 1");
+		lagMonitor.checkNow();
+		assertEquals("replica", currentNode(readOnlyTx));
+	}
+
+	@Test
+	@DisplayName("Should fall back to the primary when replication is not running")
+	void testRouting_StoppedReplicationFallsBack() {
+		// Given
+		replicaJdbc.update("DELETE FROM replica_status");
+
+		// When
+		lagMonitor.checkNow();
+
+		// Then
+		assertEquals("primary", currentNode(readOnlyTx));
+	}
+
+}
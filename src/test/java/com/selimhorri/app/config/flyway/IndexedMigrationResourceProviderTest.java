@@ -0,0 +1,86 @@
+package com.selimhorri.app.config.flyway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+@DisplayName("IndexedMigrationResourceProvider Tests")
+class IndexedMigrationResourceProviderTest {
+
+	private static final Path MIGRATIONS = Paths.get("src/main/resources/db/migration");
+
+	private static IndexedMigrationResourceProvider provider() {
+		return new IndexedMigrationResourceProvider(IndexedMigrationResourceProviderTest.class.getClassLoader(),
+				StandardCharsets.UTF_8, new Location[] { new Location("classpath:db/migration") });
+	}
+
+	@Test
+	@DisplayName("Should list every migration script in migrations.idx")
+	void testIndex_MatchesMigrationScripts() throws IOException {
+		// Given
+		final Set<String> scripts;
+		try (Stream<Path> files = Files.list(MIGRATIONS)) {
+			scripts = files.map(file -> file.getFileName().toString())
+					.filter(filename -> filename.endsWith(".sql"))
+					.collect(Collectors.toSet());
+		}
+
+		// When
+		final Set<String> indexed = new HashSet<>(IndexedMigrationResourceProvider.readIndex(
+				getClass().getClassLoader(), "db/migration"));
+
+		// Then
+		assertEquals(scripts, indexed, "db/migration/" + IndexedMigrationResourceProvider.INDEX + " is out of date");
+	}
+
+	@Test
+	@DisplayName("Should filter by prefix and suffix and resolve single resources")
+	void testResources_PrefixAndSuffix() {
+		// Given
+		final IndexedMigrationResourceProvider provider = provider();
+
+		// When / Then
+		assertEquals(provider.size(), provider.getResources("V", new String[] { ".sql" }).size());
+		assertEquals(0, provider.getResources("R", new String[] { ".sql" }).size());
+		assertNotNull(provider.getResource("V1__create_categories_table.sql"));
+	}
+
+	@Test
+	@DisplayName("Should migrate a database with the indexed scripts only")
+	void testMigrate_WithIndexedResources() {
+		// Given
+		final DriverManagerDataSource dataSource =
+				new DriverManagerDataSource("jdbc:h2:mem:indexed_migrations;DB_CLOSE_DELAY=-1", "sa", "");
+		final IndexedMigrationResourceProvider provider = provider();
+
+		// When
+		final int applied = Flyway.configure()
+				.dataSource(dataSource)
+				.resourceProvider(provider)
+				.load()
+				.migrate()
+				.migrationsExecuted;
+
+		// Then
+		assertEquals(provider.size(), applied);
+		assertTrue(new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM products", Integer.class) > 0);
+	}
+
+}
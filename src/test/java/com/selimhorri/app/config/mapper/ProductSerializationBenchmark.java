@@ -0,0 +1,92 @@
+package com.selimhorri.app.config.mapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+
+// GET /api/products response body with the application ObjectMapper (MapperConfig, INDENT_OUTPUT on),
+// written to a counting sink so the result size is part of the output and no buffer growth is measured
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseG1GC", "-Xmx4g"})
+public class ProductSerializationBenchmark {
+
+	private static final int CATEGORIES = 50;
+
+	@Param({"1000", "100000", "1000000"})
+	private int size;
+
+	private ObjectWriter writer;
+	private DtoCollectionResponse<ProductDto> response;
+
+	@Setup
+	public void setUp() {
+		final ObjectMapper objectMapper = new MapperConfig().objectMapperBean();
+		this.writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+				.constructParametricType(DtoCollectionResponse.class, ProductDto.class));
+
+		final List<ProductDto> productDtos = new ArrayList<>(this.size);
+		for (int i = 1; i <= this.size; i++)
+			productDtos.add(ProductDto.builder()
+					.productId(i)
+					.productTitle("Product " + i)
+					.imageUrl("https://example.com/products/" + i + ".jpg")
+					.sku("SKU-" + i)
+					.priceUnit(1_000L + i % 100_000)
+					.quantity(i % 100)
+					.categoryDto(CategoryDto.builder()
+							.categoryId(i % CATEGORIES)
+							.categoryTitle("Category " + i % CATEGORIES)
+							.imageUrl("https://example.com/categories/" + i % CATEGORIES + ".jpg")
+							.build())
+					.build());
+		this.response = new DtoCollectionResponse<>(productDtos);
+	}
+
+	@Benchmark
+	public long serialize() throws IOException {
+		final CountingOutputStream out = new CountingOutputStream();
+		this.writer.writeValue(out, this.response);
+		return out.count;
+	}
+
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(final int b) {
+			this.count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) {
+			this.count += len;
+		}
+
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.selimhorri.app.config.togglz;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.togglz.core.Feature;
+import org.togglz.core.repository.FeatureState;
+import org.togglz.core.repository.jdbc.JDBCStateRepository;
+import org.togglz.core.util.NamedFeature;
+
+@DisplayName("CachedStateRepository Tests")
+class CachedStateRepositoryTest {
+
+	private static final Feature DISCOUNT_APPLIED = new NamedFeature("DISCOUNT_APPLIED");
+
+	private JdbcTemplate jdbcTemplate;
+	private CachedStateRepository nodeA;
+	private CachedStateRepository nodeB;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:togglz_state;DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE togglz (FEATURE_NAME VARCHAR(100) NOT NULL PRIMARY KEY, "
+				+ "FEATURE_ENABLED INTEGER, STRATEGY_ID VARCHAR(200), STRATEGY_PARAMS VARCHAR(2000))");
+		jdbcTemplate.execute("CREATE TABLE togglz_version (id INT NOT NULL PRIMARY KEY, version BIGINT NOT NULL)");
+		jdbcTemplate.execute("INSERT INTO togglz_version (id, version) VALUES (1, 0)");
+
+		// Two instances over the same table stand in for two service nodes
+		nodeA = new CachedStateRepository(JDBCStateRepository.newBuilder(dataSource)
+				.tableName("togglz").createTable(false).build(), dataSource);
+		nodeB = new CachedStateRepository(JDBCStateRepository.newBuilder(dataSource)
+				.tableName("togglz").createTable(false).build(), dataSource);
+		nodeA.poll();
+		nodeB.poll();
+	}
+
+	@AfterEach
+	void tearDown() {
+		nodeA.stop();
+		nodeB.stop();
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+	}
+
+	@Test
+	@DisplayName("Should leave unknown features to their defaults")
+	void testGetFeatureState_UnknownFeature() {
+		assertNull(nodeA.getFeatureState(DISCOUNT_APPLIED));
+		assertEquals(0L, nodeA.getVersion());
+	}
+
+	@Test
+	@DisplayName("Should persist a flip, bump the version and serve it from the snapshot")
+	void testSetFeatureState_PersistsAndBumpsVersion() {
+		// When
+		nodeA.setFeatureState(new FeatureState(DISCOUNT_APPLIED, true));
+
+		// Then
+		assertEquals(1L, nodeA.getVersion());
+		assertTrue(nodeA.getFeatureState(DISCOUNT_APPLIED).isEnabled());
+		assertSame(nodeA.getFeatureState(DISCOUNT_APPLIED), nodeA.getFeatureState(DISCOUNT_APPLIED));
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT FEATURE_ENABLED FROM togglz WHERE FEATURE_NAME = 'DISCOUNT_APPLIED'", Integer.class));
+	}
+
+	@Test
+	@DisplayName("Should pick up another node's flip on the next poll")
+	void testPoll_PropagatesAcrossNodes() {
+		// Given
+		nodeA.setFeatureState(new FeatureState(DISCOUNT_APPLIED, true));
+		assertNull(nodeB.getFeatureState(DISCOUNT_APPLIED));
+
+		// When
+		nodeB.poll();
+
+		// Then
+		assertTrue(nodeB.getFeatureState(DISCOUNT_APPLIED).isEnabled());
+
+		nodeB.setFeatureState(new FeatureState(DISCOUNT_APPLIED, false));
+		nodeA.poll();
+		assertFalse(nodeA.getFeatureState(DISCOUNT_APPLIED).isEnabled());
+		assertEquals(2L, nodeA.getVersion());
+	}
+
+}
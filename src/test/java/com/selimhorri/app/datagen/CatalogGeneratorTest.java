@@ -0,0 +1,102 @@
+package com.selimhorri.app.datagen;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+@DisplayName("CatalogGenerator Tests")
+class CatalogGeneratorTest {
+
+	private static final CatalogGeneratorSettings SETTINGS = CatalogGeneratorSettings.builder()
+			.seed(7L)
+			.products(5_000)
+			.categories(120)
+			.categoryDepth(3)
+			.batchSize(256)
+			.build();
+
+	private static DataSource migratedDataSource(final String name) {
+		DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+		new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+		Flyway.configure().dataSource(dataSource).load().migrate();
+		return dataSource;
+	}
+
+	private static List<Map<String, Object>> generatedProducts(final JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForList("SELECT product_id, category_id, product_title, sku, price_unit, quantity "
+				+ "FROM products WHERE sku LIKE 'GEN-%' ORDER BY product_id");
+	}
+
+	@Test
+	@DisplayName("Should generate the same catalog for the same seed")
+	void testGenerate_Deterministic() {
+		// Given
+		DataSource first = migratedDataSource("catalog_generator_a");
+		DataSource second = migratedDataSource("catalog_generator_b");
+
+		// When
+		GeneratedCatalog firstCatalog = new CatalogGenerator(first).generate(SETTINGS);
+		GeneratedCatalog secondCatalog = new CatalogGenerator(second).generate(SETTINGS);
+
+		// Then
+		assertEquals(firstCatalog.getLeafCategoryIds(), secondCatalog.getLeafCategoryIds());
+		assertEquals(generatedProducts(new JdbcTemplate(first)), generatedProducts(new JdbcTemplate(second)));
+	}
+
+	@Test
+	@DisplayName("Should build a multi-level tree with unique SKUs and Zipf-skewed leaf sizes")
+	void testGenerate_Shape() {
+		// Given
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(migratedDataSource("catalog_generator_shape"));
+
+		// When
+		GeneratedCatalog catalog = new CatalogGenerator(jdbcTemplate.getDataSource()).generate(SETTINGS);
+
+		// Then
+		assertEquals(120, catalog.getCategoryIds().size());
+		assertEquals(5_000, catalog.getLastProductId() - catalog.getFirstProductId() + 1);
+		assertEquals(5_000, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT sku) FROM products WHERE sku LIKE 'GEN-%'", Integer.class));
+		// Every third-level category hangs from a second-level one under a root
+		assertEquals(CatalogGenerator.levelSizes(120, 3)[2], jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories c "
+				+ "JOIN categories p ON c.parent_category_id = p.category_id JOIN categories r ON p.parent_category_id = r.category_id "
+				+ "WHERE r.parent_category_id IS NULL AND c.category_id >= ?", Integer.class, catalog.getCategoryIds().get(0)));
+		// Products only sit on leaves, the top-ranked leaf holds far more than the median one
+		List<Integer> leaves = catalog.getLeafCategoryIds();
+		int largest = productsIn(jdbcTemplate, leaves.get(0));
+		int median = productsIn(jdbcTemplate, leaves.get(leaves.size() / 2));
+		assertTrue(largest > 10 * Math.max(1, median), largest + " vs " + median);
+		assertEquals(5_000, IntStream.range(0, leaves.size()).map(i -> productsIn(jdbcTemplate, leaves.get(i))).sum());
+		assertTrue(jdbcTemplate.queryForObject("SELECT MIN(price_unit) FROM products WHERE sku LIKE 'GEN-%'", BigDecimal.class).signum() > 0);
+	}
+
+	private static int productsIn(final JdbcTemplate jdbcTemplate, final int categoryId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE category_id = ? AND sku LIKE 'GEN-%'",
+				Integer.class, categoryId);
+	}
+
+	@Test
+	@DisplayName("Should split categories into geometrically growing levels")
+	void testLevelSizes() {
+		// When / Then
+		assertArrayEquals(new int[] {10, 100, 1000}, CatalogGenerator.levelSizes(1110, 3));
+		assertArrayEquals(new int[] {7}, CatalogGenerator.levelSizes(7, 1));
+		assertEquals(2_000, IntStream.of(CatalogGenerator.levelSizes(2_000, 4)).sum());
+		assertThrows(IllegalArgumentException.class, () -> new CatalogGenerator(new DriverManagerDataSource())
+				.generate(SETTINGS.toBuilder().categories(2).build()));
+	}
+
+}
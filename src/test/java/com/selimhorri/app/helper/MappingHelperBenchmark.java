@@ -0,0 +1,88 @@
+package com.selimhorri.app.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+
+// ProductMappingHelper/CategoryMappingHelper in both directions, per list as findAll/save use them.
+// Run with the other benchmarks: mvn -Pbenchmark test-compile exec:exec
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseG1GC")
+public class MappingHelperBenchmark {
+
+	@Param({"1000"})
+	private int size;
+
+	private List<Product> products;
+	private List<ProductDto> productDtos;
+	private List<Category> categories;
+	private List<CategoryDto> categoryDtos;
+
+	@Setup
+	public void setUp() {
+		this.categories = new ArrayList<>(this.size);
+		this.products = new ArrayList<>(this.size);
+		for (int i = 1; i <= this.size; i++) {
+			final Category category = Category.builder()
+					.categoryId(i)
+					.categoryTitle("Category " + i)
+					.imageUrl("https://example.com/categories/" + i + ".jpg")
+					.build();
+			this.categories.add(category);
+			this.products.add(Product.builder()
+					.productId(i)
+					.productTitle("Product " + i)
+					.imageUrl("https://example.com/products/" + i + ".jpg")
+					.sku("SKU-" + i)
+					.priceUnit(1_000L + i)
+					.quantity(i % 100)
+					.category(category)
+					.build());
+		}
+		this.productDtos = this.products.stream().map(ProductMappingHelper::map).collect(Collectors.toList());
+		this.categoryDtos = this.categories.stream().map(CategoryMappingHelper::map).collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<ProductDto> productToDto() {
+		return this.products.stream().map(ProductMappingHelper::map).collect(Collectors.toUnmodifiableList());
+	}
+
+	@Benchmark
+	public List<Product> productFromDto() {
+		return this.productDtos.stream().map(ProductMappingHelper::map).collect(Collectors.toUnmodifiableList());
+	}
+
+	@Benchmark
+	public List<CategoryDto> categoryToDto() {
+		return this.categories.stream().map(CategoryMappingHelper::map).collect(Collectors.toUnmodifiableList());
+	}
+
+	@Benchmark
+	public List<Category> categoryFromDto() {
+		return this.categoryDtos.stream().map(CategoryMappingHelper::map).collect(Collectors.toUnmodifiableList());
+	}
+
+}
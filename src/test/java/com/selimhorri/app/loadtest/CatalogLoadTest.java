@@ -0,0 +1,366 @@
+package com.selimhorri.app.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.concurrent.NamedThreadFactory;
+import com.selimhorri.app.config.mapper.MapperConfig;
+import com.selimhorri.app.datagen.CatalogGenerator;
+import com.selimhorri.app.datagen.CatalogGeneratorSettings;
+import com.selimhorri.app.datagen.GeneratedCatalog;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Boots the service on its own H2 database, seeds a large catalog and drives closed-loop mixed traffic
+// through ProductResource and CategoryResource. Closed loop: a slow response delays that worker's next
+// request, so stalls are under-sampled (coordinated omission) and p99.9 reads better than it is. Only runs with -Pload-test, settings are -Dloadtest.* properties;
+// adding -Pvirtual-threads (JDK 21+) runs the same load against the virtual-threads profile
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:catalog_load;DB_CLOSE_DELAY=-1",
+		"SPRING_CONFIG_IMPORT=",
+		"spring.cloud.config.enabled=false",
+		"spring.cloud.config.import-check.enabled=false",
+		"eureka.client.enabled=false",
+		"spring.zipkin.enabled=false",
+		// Per-request INFO/DEBUG logging would measure the console, not the service
+		"logging.level.com.selimhorri.app=WARN",
+		"logging.level.org.springframework.web=INFO",
+		"logging.level.org.springframework.data=INFO"})
+@DisplayName("Catalog load test")
+@Slf4j
+class CatalogLoadTest {
+
+	private static final String ALL = "ALL";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private Environment environment;
+
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	private final ObjectMapper objectMapper = new MapperConfig().objectMapperBean();
+	private final AtomicLong createdSkus = new AtomicLong();
+	private final AtomicLong categoryTitles = new AtomicLong();
+
+	enum Operation {
+
+		PRODUCT_BY_ID("GET /api/products/{id}"),
+		// The whole catalog in one response, keep its weight low on large catalogs
+		PRODUCTS("GET /api/products"),
+		CATEGORY_BY_ID("GET /api/categories/{id}"),
+		CATEGORIES("GET /api/categories"),
+		PRODUCT_UPDATE("PUT /api/products/{id}"),
+		PRODUCT_CREATE("POST /api/products"),
+		CATEGORY_UPDATE("PUT /api/categories/{id}"),
+		CATEGORY_CREATE("POST /api/categories");
+
+		private final String endpoint;
+
+		Operation(final String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+	}
+
+	@Test
+	@DisplayName("Should sustain mixed catalog traffic within the stored baseline")
+	void testMixedTraffic_WithinBaseline() throws Exception {
+		// Given
+		final int products = Integer.getInteger("loadtest.products", 1_000_000);
+		final int categories = Integer.getInteger("loadtest.categories", 2_000);
+		final int depth = Integer.getInteger("loadtest.category-depth", 4);
+		final int threads = Integer.getInteger("loadtest.threads", 16);
+		final int categoryPool = Integer.getInteger("loadtest.category-pool", 100);
+		final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT30S"));
+		final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+		final double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.2"));
+		final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+		// Baselines only mean something on the machine that recorded them: one reference file per named
+		// runner, and per threading mode so the two modes are never compared against each other
+		final String runner = System.getProperty("loadtest.runner", "local");
+		// The reference runner must have a committed baseline, elsewhere a missing one is recorded instead
+		final boolean requireBaseline = Boolean.parseBoolean(System.getProperty("loadtest.require-baseline",
+				String.valueOf("reference".equals(runner))));
+		final boolean virtualThreads = this.environment.acceptsProfiles(Profiles.of("virtual-threads"));
+		final String suffix = virtualThreads ? "-virtual-threads" : "";
+		final Path baselinePath = Path.of(System.getProperty("loadtest.baseline",
+				"src/test/resources/loadtest/" + runner + suffix + ".json"));
+		final Path recordedBaselinePath = Path.of("target/loadtest/" + runner + suffix + ".json");
+		final Path resultPath = Path.of(System.getProperty("loadtest.result", "target/loadtest-result" + suffix + ".json"));
+		final Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+				"PRODUCT_BY_ID=55,PRODUCTS=1,CATEGORY_BY_ID=15,CATEGORIES=5,PRODUCT_UPDATE=15,PRODUCT_CREATE=5,"
+						+ "CATEGORY_UPDATE=2,CATEGORY_CREATE=2"));
+
+		final GeneratedCatalog catalog = new CatalogGenerator(this.dataSource).generate(CatalogGeneratorSettings.builder()
+				.seed(Long.getLong("loadtest.seed", 42L))
+				.products(products)
+				.categories(categories)
+				.categoryDepth(depth)
+				.skuPrefix("LT")
+				.build());
+		final List<Integer> pooledCategoryIds = this.seedCategoryPool(categoryPool);
+
+		// When
+		final Map<String, OperationStats> stats = this.run(catalog, pooledCategoryIds, mix, threads, warmup, duration);
+
+		// Then
+		final Map<String, Object> result = new LinkedHashMap<>();
+		result.put("runner", runner);
+		result.put("products", products);
+		result.put("categories", categories);
+		result.put("categoryDepth", depth);
+		result.put("categoryPool", categoryPool);
+		result.put("threads", threads);
+		result.put("virtualThreads", virtualThreads);
+		result.put("mix", mix);
+		result.put("operations", stats);
+		Files.createDirectories(resultPath.toAbsolutePath().getParent());
+		this.objectMapper.writeValue(resultPath.toFile(), result);
+		stats.forEach((operation, operationStats) -> log.warn("*** {}: {} *", operation, operationStats));
+
+		final double errorRate = stats.get(ALL).errorRate();
+		assertTrue(errorRate <= maxErrorRate,
+				() -> String.format("Error rate %.4f over %.4f", errorRate, maxErrorRate));
+
+		// Recorded under target/, committing it as the runner's reference is a deliberate copy
+		if (Boolean.getBoolean("loadtest.update-baseline")) {
+			this.recordBaseline(result, recordedBaselinePath, baselinePath);
+			return;
+		}
+		if (!Files.exists(baselinePath)) {
+			assertFalse(requireBaseline, () -> "No baseline at " + baselinePath + " for runner '" + runner
+					+ "': record one on that runner with -Dloadtest.update-baseline=true and commit it");
+			this.recordBaseline(result, recordedBaselinePath, baselinePath);
+		}
+		// Reported as skipped, not passed: nothing was compared
+		assumeTrue(Files.exists(baselinePath), () -> "No baseline at " + baselinePath + " for runner '" + runner
+				+ "', comparison skipped; this run was recorded to " + recordedBaselinePath);
+		final JsonNode baseline = this.objectMapper.readTree(baselinePath.toFile());
+		assertTrue(baseline.path("runner").asText().equals(runner) && baseline.path("products").asInt() == products
+						&& baseline.path("categoryPool").asInt() == categoryPool
+						&& baseline.path("threads").asInt() == threads
+						&& baseline.path("virtualThreads").asBoolean() == virtualThreads
+						&& baseline.path("mix").equals(this.objectMapper.valueToTree(mix)),
+				() -> "Baseline " + baselinePath + " was recorded with a different runner, catalog size, category pool, "
+						+ "thread count, threading mode or mix");
+
+		final List<String> regressions = new ArrayList<>();
+		baseline.path("operations").fields().forEachRemaining(entry -> {
+			final OperationStats current = stats.get(entry.getKey());
+			if (current != null)
+				current.regressionsAgainst(this.objectMapper.convertValue(entry.getValue(), OperationStats.class), tolerance)
+						.forEach(regression -> regressions.add(entry.getKey() + ": " + regression));
+		});
+		assertTrue(regressions.isEmpty(), () -> "Regressions past the baseline:\n" + String.join("\n", regressions));
+	}
+
+	private void recordBaseline(final Map<String, Object> result, final Path recordedBaselinePath, final Path baselinePath)
+			throws IOException {
+		Files.createDirectories(recordedBaselinePath.toAbsolutePath().getParent());
+		this.objectMapper.writeValue(recordedBaselinePath.toFile(), result);
+		log.warn("*** Baseline written to {}, copy it to {} to make it the reference *", recordedBaselinePath, baselinePath);
+	}
+
+	// Categories only the load test updates: PUT resets the parent, so the generated tree is left alone
+	private List<Integer> seedCategoryPool(final int size) {
+		final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		final List<Object[]> rows = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			rows.add(new Object[] { "LT pool category " + i, "https://example.com/categories/pool-" + i + ".jpg" });
+		jdbcTemplate.batchUpdate("INSERT INTO categories (category_title, image_url) VALUES (?, ?)", rows);
+		return jdbcTemplate.queryForList("SELECT category_id FROM categories WHERE category_title LIKE 'LT pool category %' "
+				+ "ORDER BY category_id", Integer.class);
+	}
+
+	private Map<String, OperationStats> run(final GeneratedCatalog catalog, final List<Integer> pooledCategoryIds,
+			final Map<Operation, Integer> mix,
+			final int threads, final Duration warmup, final Duration duration) throws InterruptedException {
+		final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+		final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+		for (final Operation operation : Operation.values()) {
+			// Microseconds, up to one minute, 3 significant digits
+			latencies.put(operation, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+			errors.put(operation, new LongAdder());
+		}
+		final Operation[] picks = mix.entrySet().stream()
+				.flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+				.toArray(Operation[]::new);
+
+		final long measureFrom = System.nanoTime() + warmup.toNanos();
+		final long measureTo = measureFrom + duration.toNanos();
+		final ExecutorService workers = Executors.newFixedThreadPool(threads, new NamedThreadFactory("load-"));
+		for (int i = 0; i < threads; i++)
+			workers.execute(() -> {
+				final ThreadLocalRandom random = ThreadLocalRandom.current();
+				while (System.nanoTime() < measureTo) {
+					final Operation operation = picks[random.nextInt(picks.length)];
+					final HttpRequest request = this.request(operation, catalog, pooledCategoryIds, random);
+					final long start = System.nanoTime();
+					boolean failed;
+					try {
+						final int status = this.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+						failed = status < 200 || status >= 300;
+					}
+					catch (IOException e) {
+						failed = true;
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					final long end = System.nanoTime();
+					if (start >= measureFrom && end <= measureTo) {
+						latencies.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(end - start),
+								TimeUnit.MINUTES.toMicros(1)));
+						if (failed)
+							errors.get(operation).increment();
+					}
+				}
+			});
+		workers.shutdown();
+		if (!workers.awaitTermination(warmup.plus(duration).plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS))
+			workers.shutdownNow();
+
+		final double seconds = duration.toNanos() / 1e9;
+		final Map<String, OperationStats> stats = new LinkedHashMap<>();
+		final Histogram all = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+		long allErrors = 0;
+		for (final Operation operation : mix.keySet()) {
+			final Histogram histogram = latencies.get(operation);
+			all.add(histogram);
+			allErrors += errors.get(operation).sum();
+			stats.put(operation.endpoint, toStats(histogram, errors.get(operation).sum(), seconds));
+		}
+		stats.put(ALL, toStats(all, allErrors, seconds));
+		return stats;
+	}
+
+	private HttpRequest request(final Operation operation, final GeneratedCatalog catalog,
+			final List<Integer> pooledCategoryIds, final ThreadLocalRandom random) {
+		final int productId = random.nextInt(catalog.getFirstProductId(), catalog.getLastProductId() + 1);
+		final int leafId = catalog.getLeafCategoryIds().get(random.nextInt(catalog.getLeafCategoryIds().size()));
+		switch (operation) {
+		case PRODUCT_BY_ID:
+			return this.get("/api/products/" + productId);
+		case PRODUCTS:
+			return this.get("/api/products");
+		case CATEGORY_BY_ID:
+			return this.get("/api/categories/" + catalog.getCategoryIds().get(random.nextInt(catalog.getCategoryIds().size())));
+		case CATEGORIES:
+			return this.get("/api/categories");
+		case PRODUCT_UPDATE:
+			return this.send("PUT", "/api/products/" + productId, this.productJson(productId, leafId, random));
+		case PRODUCT_CREATE:
+			return this.send("POST", "/api/products", this.productJson(null, leafId, random));
+		case CATEGORY_UPDATE:
+			final int pooledId = pooledCategoryIds.get(random.nextInt(pooledCategoryIds.size()));
+			return this.send("PUT", "/api/categories/" + pooledId, this.categoryJson(pooledId));
+		case CATEGORY_CREATE:
+			return this.send("POST", "/api/categories", this.categoryJson(null));
+		default:
+			throw new IllegalArgumentException("Unknown operation " + operation);
+		}
+	}
+
+	private String productJson(final Integer productId, final int categoryId, final ThreadLocalRandom random) {
+		final long sku = this.createdSkus.incrementAndGet();
+		return String.format("{\"productId\":%s,\"productTitle\":\"Load product %d\",\"imageUrl\":\"https://example.com/products/%d.jpg\","
+				+ "\"sku\":\"LTW-%d\",\"priceUnit\":%d.%02d,\"quantity\":%d,\"category\":{\"categoryId\":%d}}",
+				productId, sku, sku, sku, random.nextInt(1, 10_000), random.nextInt(100), random.nextInt(500), categoryId);
+	}
+
+	// Titles are unique per run, the service rejects duplicates
+	private String categoryJson(final Integer categoryId) {
+		final long title = this.categoryTitles.incrementAndGet();
+		return String.format("{\"categoryId\":%s,\"categoryTitle\":\"LT category %d\","
+				+ "\"imageUrl\":\"https://example.com/categories/%d.jpg\"}", categoryId, title, title);
+	}
+
+	private HttpRequest get(final String path) {
+		return HttpRequest.newBuilder(this.uri(path)).timeout(Duration.ofSeconds(30)).GET().build();
+	}
+
+	private HttpRequest send(final String method, final String path, final String body) {
+		return HttpRequest.newBuilder(this.uri(path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.method(method, HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+
+	private URI uri(final String path) {
+		return URI.create("http://localhost:" + this.port + "/product-service" + path);
+	}
+
+	private static OperationStats toStats(final Histogram histogram, final long errors, final double seconds) {
+		return new OperationStats(
+				histogram.getTotalCount(),
+				errors,
+				histogram.getTotalCount() / seconds,
+				histogram.getValueAtPercentile(50.0) / 1_000.0,
+				histogram.getValueAtPercentile(99.0) / 1_000.0,
+				histogram.getValueAtPercentile(99.9) / 1_000.0);
+	}
+
+	// "PRODUCT_BY_ID=60,CATEGORIES=5", weights are relative
+	private static Map<Operation, Integer> parseMix(final String mix) {
+		final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for (final String entry : mix.split(",")) {
+			final String[] parts = entry.trim().split("=");
+			final int weight = Integer.parseInt(parts[1].trim());
+			if (weight > 0)
+				weights.put(Operation.valueOf(parts[0].trim()), weight);
+		}
+		if (weights.isEmpty())
+			throw new IllegalArgumentException("loadtest.mix has no operation with a positive weight");
+		return weights;
+	}
+
+}
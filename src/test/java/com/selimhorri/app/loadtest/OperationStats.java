@@ -0,0 +1,39 @@
+package com.selimhorri.app.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One operation of a load-test run, also the format of the stored baselines
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class OperationStats {
+
+	private long requests;
+	private long errors;
+	private double throughput;
+	private double p50Millis;
+	private double p99Millis;
+	private double p999Millis;
+
+	double errorRate() {
+		return this.requests == 0 ? 0.0 : (double) this.errors / this.requests;
+	}
+
+	// Human-readable regressions against the baseline, empty when within tolerance
+	List<String> regressionsAgainst(final OperationStats baseline, final double tolerance) {
+		final List<String> regressions = new ArrayList<>();
+		if (this.throughput < baseline.throughput * (1 - tolerance))
+			regressions.add(String.format("throughput %.1f req/s < baseline %.1f", this.throughput, baseline.throughput));
+		if (this.p99Millis > baseline.p99Millis * (1 + tolerance))
+			regressions.add(String.format("p99 %.2f ms > baseline %.2f", this.p99Millis, baseline.p99Millis));
+		if (this.p999Millis > baseline.p999Millis * (1 + tolerance))
+			regressions.add(String.format("p99.9 %.2f ms > baseline %.2f", this.p999Millis, baseline.p999Millis));
+		return regressions;
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.selimhorri.app.logging;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+@DisplayName("MeteredAsyncAppender Tests")
+class MeteredAsyncAppenderTest {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private LoggerContext loggerContext;
+	private MeteredAsyncAppender appender;
+
+	@BeforeEach
+	void setUp() {
+		loggerContext = new LoggerContext();
+		// Stands in for a slow disk: the worker thread blocks on the first event
+		final AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+			@Override
+			protected void append(final ILoggingEvent event) {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		slow.setContext(loggerContext);
+		slow.start();
+
+		appender = new MeteredAsyncAppender();
+		appender.setContext(loggerContext);
+		appender.setQueueSize(10);
+		appender.setNeverBlock(true);
+		appender.addAppender(slow);
+		appender.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		appender.stop();
+	}
+
+	private void log(final Level level, final int events) {
+		final Logger logger = loggerContext.getLogger("com.selimhorri.app.resource.ProductResource");
+		for (int i = 0; i < events; i++)
+			appender.doAppend(new LoggingEvent(Logger.class.getName(), logger, level, "*** event *", null, null));
+	}
+
+	@Test
+	@DisplayName("Should drop instead of blocking and count why")
+	void testAppend_DropsAndCounts() {
+		// When: the worker holds at most one event, the queue takes 10
+		log(Level.INFO, 50);
+		log(Level.WARN, 50);
+
+		// Then: INFO discarded once fewer than 2 slots are left (9 queued), everything dropped once full
+		assertTrue(appender.getDiscarded() >= 50 - 1 - 9, "discarded " + appender.getDiscarded());
+		assertTrue(appender.getQueueFull() >= 50 - 2, "queue full " + appender.getQueueFull());
+		assertTrue(appender.getNumberOfElementsInQueue() >= 9);
+	}
+
+}
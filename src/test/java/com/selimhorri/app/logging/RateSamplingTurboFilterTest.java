@@ -0,0 +1,70 @@
+package com.selimhorri.app.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+@DisplayName("RateSamplingTurboFilter Tests")
+class RateSamplingTurboFilterTest {
+
+	private LoggerContext loggerContext;
+	private RateSamplingTurboFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		loggerContext = new LoggerContext();
+		filter = new RateSamplingTurboFilter();
+		filter.addLoggerPrefix("com.selimhorri.app.resource");
+		filter.setEventsPerSecond(3);
+		filter.setMaxLevel("INFO");
+		filter.start();
+	}
+
+	private int passed(final Logger logger, final Level level, final int events) {
+		int passed = 0;
+		for (int i = 0; i < events; i++)
+			if (filter.decide(null, logger, level, "*** event *", null, null) == FilterReply.NEUTRAL)
+				passed++;
+		return passed;
+	}
+
+	@Test
+	@DisplayName("Should let eventsPerSecond events per logger through and count the rest")
+	void testDecide_CapsRequestPathLoggers() {
+		// Given
+		final Logger products = loggerContext.getLogger("com.selimhorri.app.resource.ProductResource");
+		final Logger categories = loggerContext.getLogger("com.selimhorri.app.resource.CategoryResource");
+
+		// When
+		final int productEvents = passed(products, Level.INFO, 100);
+		final int categoryEvents = passed(categories, Level.DEBUG, 100);
+
+		// Then: unless the second ticked over in between, which only lets more through
+		assertEquals(3, Math.min(3, productEvents));
+		assertEquals(3, Math.min(3, categoryEvents));
+		assertEquals(200 - productEvents - categoryEvents, filter.getSampledOut());
+	}
+
+	@Test
+	@DisplayName("Should never sample WARN/ERROR, other loggers or isEnabled checks")
+	void testDecide_PassesOtherEvents() {
+		// Given
+		final Logger resource = loggerContext.getLogger("com.selimhorri.app.resource.ProductResource");
+		final Logger other = loggerContext.getLogger("com.selimhorri.app.pricing.PricingEngine");
+
+		// When / Then
+		assertEquals(100, passed(resource, Level.WARN, 100));
+		assertEquals(100, passed(other, Level.INFO, 100));
+		for (int i = 0; i < 100; i++)
+			assertEquals(FilterReply.NEUTRAL, filter.decide(null, resource, Level.INFO, null, null, null));
+		assertEquals(0, filter.getSampledOut());
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.selimhorri.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@DisplayName("QueryCountingListener Tests")
+class QueryCountingListenerTest {
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		DataSource dataSource = ProxyDataSourceBuilder
+				.create(new DriverManagerDataSource("jdbc:h2:mem:query_counting;DB_CLOSE_DELAY=-1", "sa", ""))
+				.listener(new QueryCountingListener())
+				.build();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE items (item_id INT PRIMARY KEY)");
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+	}
+
+	@Test
+	@DisplayName("Should count statements and DB time of the current scope only, batches per row")
+	void testRecord_CountsStatementsInScope() {
+		// Given
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+
+		// When
+		QueryStats stats = QueryStats.begin();
+		jdbcTemplate.batchUpdate("INSERT INTO items (item_id) VALUES (?)", List.of(new Object[] {1}, new Object[] {2}, new Object[] {3}));
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+		stats.end();
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+
+		// Then
+		assertEquals(4, stats.getStatements());
+		assertTrue(stats.getDbNanos() > 0);
+	}
+
+	@Test
+	@DisplayName("Should roll nested scopes up into the enclosing one")
+	void testEnd_NestedScopes() {
+		// When
+		QueryStats outer = QueryStats.begin();
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+		QueryStats inner = QueryStats.begin();
+		jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+		inner.end();
+		outer.end();
+
+		// Then
+		assertEquals(1, inner.getStatements());
+		assertEquals(2, outer.getStatements());
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.selimhorri.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ResourceUsageFilter Tests")
+class ResourceUsageFilterTest {
+
+	private static final String ENDPOINT = "GET /api/products/{productId}";
+
+	private MeterRegistry meterRegistry;
+	private ResourceUsageFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		assumeTrue(ThreadResourceUsage.isSupported());
+		meterRegistry = new SimpleMeterRegistry();
+		filter = new ResourceUsageFilter(meterRegistry, List.of(DataSize.ofMegabytes(1)), List.of(Duration.ofMillis(10)));
+	}
+
+	// Allocates about size bytes, on a worker thread charged to the request when offloaded
+	private static HttpServlet handler(final int size, final boolean offloaded) {
+		return new HttpServlet() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(final HttpServletRequest request, final HttpServletResponse response) {
+				request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{productId}");
+				if (!offloaded) {
+					request.setAttribute("payload", new byte[size]);
+					return;
+				}
+				final RequestResourceUsage usage = RequestResourceUsage.current();
+				CompletableFuture.supplyAsync(() -> usage.charge(() -> new byte[size])).join();
+			}
+
+		};
+	}
+
+	@Test
+	@DisplayName("Should record allocated bytes and CPU time per endpoint")
+	void testDoFilter_RecordsPerEndpoint() throws Exception {
+		// When
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/products/1"), new MockHttpServletResponse(),
+				new MockFilterChain(handler(4_000_000, false)));
+
+		// Then
+		DistributionSummary allocated = meterRegistry.get("http.request.allocated").tag("endpoint", ENDPOINT).summary();
+		assertEquals(1, allocated.count());
+		assertTrue(allocated.totalAmount() >= 4_000_000);
+		assertEquals(1, meterRegistry.get("http.request.cpu").tag("endpoint", ENDPOINT).timer().count());
+		assertNull(RequestResourceUsage.current());
+	}
+
+	@Test
+	@DisplayName("Should record async requests once, including worker threads and both dispatches")
+	void testDoFilter_AsyncDispatch() throws Exception {
+		// Given
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+		request.setAsyncStarted(true);
+
+		// When
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(handler(4_000_000, true)));
+		boolean recordedBeforeCompletion = meterRegistry.find("http.request.allocated").summary() != null;
+		request.setAsyncStarted(false);
+		request.setDispatcherType(DispatcherType.ASYNC);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(handler(1_000_000, false)));
+
+		// Then
+		assertFalse(recordedBeforeCompletion);
+		DistributionSummary allocated = meterRegistry.get("http.request.allocated").tag("endpoint", ENDPOINT).summary();
+		assertEquals(1, allocated.count());
+		assertTrue(allocated.totalAmount() >= 5_000_000);
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+@DisplayName("SlowQueryLogListener Tests")
+class SlowQueryLogListenerTest {
+
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void tearDown() {
+		// Not every test opens the database
+		if (jdbcTemplate != null)
+			jdbcTemplate.execute("DROP ALL OBJECTS");
+	}
+
+	private MeterRegistry proxy(final Duration threshold, final double sampleRate) {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		jdbcTemplate = new JdbcTemplate(ProxyDataSourceBuilder
+				.create(new DriverManagerDataSource("jdbc:h2:mem:slow_query;DB_CLOSE_DELAY=-1", "sa", ""))
+				.listener(new SlowQueryLogListener(meterRegistry, threshold, sampleRate))
+				.build());
+		return meterRegistry;
+	}
+
+	@Test
+	@DisplayName("Should mask string and numeric literals but keep identifiers")
+	void testRedact_MasksLiterals() {
+		assertEquals("select product0_.product_id from products product0_ where product0_.sku='?' and product0_.price_unit>? limit ?",
+				SlowQueryLogListener.redact("select product0_.product_id from products product0_ where product0_.sku='LAP-''001' "
+						+ "and product0_.price_unit>999.99 limit 10"));
+	}
+
+	@Test
+	@DisplayName("Should count every statement over the threshold, even when the sample skips logging it")
+	void testAfterQuery_CountsSlowStatements() {
+		// Given
+		MeterRegistry meterRegistry = proxy(Duration.ZERO, 0.0);
+
+		// When
+		jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+		jdbcTemplate.queryForObject("SELECT 2", Integer.class);
+
+		// Then
+		assertEquals(2.0, meterRegistry.counter("db.slow.queries").count());
+	}
+
+	@Test
+	@DisplayName("Should ignore statements under the threshold and reject invalid sample rates")
+	void testAfterQuery_UnderThreshold() {
+		// Given
+		MeterRegistry meterRegistry = proxy(Duration.ofMinutes(1), 1.0);
+
+		// When
+		jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+		// Then
+		assertEquals(0.0, meterRegistry.counter("db.slow.queries").count());
+		assertThrows(IllegalArgumentException.class, () -> new SlowQueryLogListener(meterRegistry, Duration.ZERO, 1.5));
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.selimhorri.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SlowRequestTracker Tests")
+class SlowRequestTrackerTest {
+
+	@Test
+	@DisplayName("Should return the slowest of the most recent calls with their statement counts")
+	void testSlowest_RecentWindow() {
+		// Given
+		SlowRequestTracker tracker = new SlowRequestTracker(3);
+		QueryStats stats = QueryStats.begin();
+		stats.end();
+
+		// When
+		tracker.record("ProductService.findAll", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(900), stats);
+		tracker.record("ProductService.findById", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(5), stats);
+		tracker.record("CategoryService.findAll", "ERROR", TimeUnit.MILLISECONDS.toNanos(40), stats);
+		tracker.record("ProductService.findById", "SUCCESS", TimeUnit.MILLISECONDS.toNanos(20), stats);
+		List<SlowRequest> slowest = tracker.slowest(2);
+
+		// Then
+		// The 900ms call was overwritten by the fourth one
+		assertEquals(2, slowest.size());
+		assertEquals("CategoryService.findAll", slowest.get(0).getEndpoint());
+		assertEquals(40.0, slowest.get(0).getDurationMillis());
+		assertEquals("ProductService.findById", slowest.get(1).getEndpoint());
+		assertEquals(0, slowest.get(1).getStatements());
+		assertEquals(3, tracker.slowest(10).size());
+	}
+
+}
@@ -0,0 +1,148 @@
+package com.selimhorri.app.nativeimage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Starts the native executable (-Dnative.image, set by the native profile) on an in-memory H2 database and
+// goes through Flyway, JPA reads and writes, Jackson and Togglz. Runs with mvn -Pnative verify
+@DisplayName("Native image smoke test")
+@Slf4j
+class NativeImageSmokeIT {
+
+	private static final Duration STARTUP_TIMEOUT = Duration.parse(System.getProperty("native.startup-timeout", "PT30S"));
+
+	private final HttpClient httpClient = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(2))
+			.build();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private Process process;
+	private int port;
+
+	@BeforeEach
+	void startNativeImage() throws Exception {
+		final String image = System.getProperty("native.image", "target/product-service");
+		assumeTrue(Files.isExecutable(Paths.get(image)), "No native executable at " + image + ", build it with -Pnative");
+
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		final Path output = Paths.get(image).resolveSibling("native-smoke.log");
+		final long start = System.nanoTime();
+		process = new ProcessBuilder(image,
+				"--spring.profiles.active=dev",
+				"--spring.datasource.url=jdbc:h2:mem:native_smoke;DB_CLOSE_DELAY=-1",
+				"--server.port=" + port,
+				"--spring.cloud.config.enabled=false",
+				"--eureka.client.enabled=false",
+				"--spring.zipkin.enabled=false",
+				// JFR is not available in the native image
+				"--app.jfr.enabled=false")
+				.redirectErrorStream(true)
+				.redirectOutput(output.toFile())
+				.start();
+
+		final long deadline = start + STARTUP_TIMEOUT.toNanos();
+		while (!isReady()) {
+			assertTrue(process.isAlive(), "Native image exited during startup, see " + output);
+			assertTrue(System.nanoTime() < deadline, "Native image not ready within " + STARTUP_TIMEOUT + ", see " + output);
+			Thread.sleep(50L);
+		}
+		log.info("*** Native image ready in {} ms *", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	@AfterEach
+	void stopNativeImage() throws InterruptedException {
+		if (process == null)
+			return;
+		process.destroy();
+		if (!process.waitFor(10, TimeUnit.SECONDS))
+			process.destroyForcibly();
+	}
+
+	@Test
+	@DisplayName("Should serve the Flyway-seeded catalog, persist a product and expose Togglz")
+	void testNativeImage_CatalogRoundTrip() throws Exception {
+		// Given: products and categories inserted by the migrations
+		final JsonNode products = get("/api/products").get("collection");
+		assertFalse(products.isEmpty());
+		final JsonNode first = products.get(0);
+		assertFalse(get("/api/categories").get("collection").isEmpty());
+
+		// When
+		final JsonNode product = get("/api/products/" + first.get("productId").asInt());
+		final JsonNode created = send("POST", "/api/products", "{\"productTitle\":\"Native smoke\",\"sku\":\"NATIVE-1\","
+				+ "\"priceUnit\":19.99,\"quantity\":3,\"category\":{\"categoryId\":"
+				+ first.get("category").get("categoryId").asInt() + "}}");
+
+		// Then
+		assertEquals(first.get("productTitle"), product.get("productTitle"));
+		assertEquals("NATIVE-1", get("/api/products/" + created.get("productId").asInt()).get("sku").asText());
+		assertEquals(19.99, created.get("priceUnit").asDouble());
+		assertEquals(200, request(HttpRequest.newBuilder(uri("/actuator/togglz")).GET().build()).statusCode());
+	}
+
+	private boolean isReady() {
+		try {
+			return request(HttpRequest.newBuilder(uri("/actuator/health/readiness")).GET().build()).statusCode() == 200;
+		}
+		catch (IOException e) {
+			return false;
+		}
+	}
+
+	private JsonNode get(final String path) throws IOException {
+		return body(request(HttpRequest.newBuilder(uri(path)).GET().build()), path);
+	}
+
+	private JsonNode send(final String method, final String path, final String json) throws IOException {
+		return body(request(HttpRequest.newBuilder(uri(path))
+				.header("Content-Type", "application/json")
+				.method(method, HttpRequest.BodyPublishers.ofString(json))
+				.build()), path);
+	}
+
+	private JsonNode body(final HttpResponse<String> response, final String path) throws IOException {
+		assertEquals(200, response.statusCode(), path + ": " + response.body());
+		return objectMapper.readTree(response.body());
+	}
+
+	private HttpResponse<String> request(final HttpRequest request) throws IOException {
+		try {
+			return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+	}
+
+	private URI uri(final String path) {
+		return URI.create("http://localhost:" + port + "/product-service" + path);
+	}
+
+}
@@ -0,0 +1,206 @@
+package com.selimhorri.app.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
+import com.selimhorri.app.domain.PricingAdjustmentType;
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.domain.PricingRuleScope;
+import com.selimhorri.app.dto.CatalogChangeDto;
+import com.selimhorri.app.event.CatalogChangeEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("EffectivePriceMaterializer Tests")
+class EffectivePriceMaterializerTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private PricingEngine pricingEngine;
+	private DataSource dataSource;
+	private EffectivePriceMaterializer materializer;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:effective_prices;DB_CLOSE_DELAY=-1", "sa", "");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE products (product_id INT PRIMARY KEY, category_id INT, sku VARCHAR(255), "
+				+ "price_unit DECIMAL(7,2), effective_price DECIMAL(7,2), effective_price_base DECIMAL(7,2), "
+				+ "discount_source VARCHAR(64), effective_price_generation BIGINT NULL, effective_price_valid_until BIGINT NULL, "
+				+ "updated_at TIMESTAMP NULL)");
+		jdbcTemplate.execute("CREATE TABLE pricing_materializer_state (id INT PRIMARY KEY, lease_owner VARCHAR(64), "
+				+ "lease_until BIGINT NOT NULL, generation BIGINT NULL, valid_until BIGINT NULL)");
+		jdbcTemplate.update("INSERT INTO pricing_materializer_state (id, lease_until) VALUES (1, 0)");
+		// Category 1 spans several batches of 2
+		for (int id = 1; id <= 5; id++)
+			jdbcTemplate.update("INSERT INTO products (product_id, category_id, sku, price_unit) VALUES (?, 1, ?, 100.00)", id, "SKU-" + id);
+		jdbcTemplate.update("INSERT INTO products (product_id, category_id, sku, price_unit) VALUES (6, 2, 'SKU-6', 10.00)");
+
+		PricingRule global = PricingRule.builder().ruleId(1).scope(PricingRuleScope.GLOBAL)
+				.adjustmentType(PricingAdjustmentType.PERCENTAGE).amount(new BigDecimal("20")).build();
+		PricingRule sku = PricingRule.builder().ruleId(2).scope(PricingRuleScope.SKU).sku("SKU-3")
+				.adjustmentType(PricingAdjustmentType.FIXED).amount(new BigDecimal("5")).build();
+		pricingEngine = mock(PricingEngine.class);
+		when(pricingEngine.current()).thenReturn(PricingRules.compile(List.of(global, sku), 7L));
+
+		materializer = newMaterializer();
+	}
+
+	private EffectivePriceMaterializer newMaterializer() {
+		return new EffectivePriceMaterializer(dataSource, pricingEngine, new SimpleMeterRegistry(), 2, 2,
+				Duration.ofSeconds(1), Duration.ofMinutes(10));
+	}
+
+	@AfterEach
+	void tearDown() {
+		materializer.stop();
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+	}
+
+	private Map<String, Object> row(int productId) {
+		return jdbcTemplate.queryForMap("SELECT effective_price, effective_price_base, discount_source, effective_price_generation, "
+				+ "effective_price_valid_until FROM products WHERE product_id = ?", productId);
+	}
+
+	@Test
+	@DisplayName("Should materialize every product across categories and batches, then skip unchanged rows")
+	void testRecomputeAll_WritesOnlyChanges() {
+		// When
+		int firstRun = materializer.recomputeAll();
+		int secondRun = materializer.recomputeAll();
+
+		// Then
+		assertEquals(6, firstRun);
+		assertEquals(0, secondRun);
+		assertEquals(0, new BigDecimal("80.00").compareTo((BigDecimal) row(1).get("EFFECTIVE_PRICE")));
+		assertEquals("GLOBAL:1", row(5).get("DISCOUNT_SOURCE"));
+		assertEquals(0, new BigDecimal("95.00").compareTo((BigDecimal) row(3).get("EFFECTIVE_PRICE")));
+		assertEquals("SKU:2", row(3).get("DISCOUNT_SOURCE"));
+		assertEquals(0, new BigDecimal("8.00").compareTo((BigDecimal) row(6).get("EFFECTIVE_PRICE")));
+	}
+
+	@Test
+	@DisplayName("Should restamp every row with the new generation when the rules change, even at the same prices")
+	void testRecomputeAll_NewGeneration() {
+		// Given
+		materializer.recomputeAll();
+		PricingRule global = PricingRule.builder().ruleId(1).scope(PricingRuleScope.GLOBAL)
+				.adjustmentType(PricingAdjustmentType.PERCENTAGE).amount(new BigDecimal("20")).build();
+		PricingRule sku = PricingRule.builder().ruleId(2).scope(PricingRuleScope.SKU).sku("SKU-3")
+				.adjustmentType(PricingAdjustmentType.FIXED).amount(new BigDecimal("5")).build();
+		when(pricingEngine.current()).thenReturn(PricingRules.compile(List.of(global, sku), 8L));
+
+		// When
+		int updated = materializer.recomputeAll();
+
+		// Then
+		assertEquals(6, updated);
+		assertEquals(8L, ((Number) row(1).get("EFFECTIVE_PRICE_GENERATION")).longValue());
+		assertEquals(Long.MAX_VALUE, ((Number) row(1).get("EFFECTIVE_PRICE_VALID_UNTIL")).longValue());
+	}
+
+	@Test
+	@DisplayName("Should recompute only the products changed since the last run")
+	void testRecomputeDirty_Incremental() {
+		// Given
+		materializer.recomputeAll();
+		jdbcTemplate.update("UPDATE products SET price_unit = 50.00 WHERE product_id = 4");
+		jdbcTemplate.update("UPDATE products SET price_unit = 60.00 WHERE product_id = 5");
+
+		// When
+		materializer.onCatalogChange(new CatalogChangeEvent(CatalogChangeDto.builder()
+				.entityType(CatalogEntityType.PRODUCT).entityId(4).changeType(CatalogChangeType.UPDATED).build()));
+		int updated = materializer.recomputeDirty();
+
+		// Then
+		assertEquals(1, updated);
+		assertEquals(0, new BigDecimal("40.00").compareTo((BigDecimal) row(4).get("EFFECTIVE_PRICE")));
+		assertEquals(0, new BigDecimal("50.00").compareTo((BigDecimal) row(4).get("EFFECTIVE_PRICE_BASE")));
+		// Not reported, still on the old base until the next full run
+		assertEquals(0, new BigDecimal("100.00").compareTo((BigDecimal) row(5).get("EFFECTIVE_PRICE_BASE")));
+		assertEquals(0, materializer.recomputeDirty());
+	}
+
+	@Test
+	@DisplayName("Should leave products without a price unpriced")
+	void testRecomputeAll_NullPrice() {
+		// Given
+		jdbcTemplate.update("INSERT INTO products (product_id, category_id, sku, price_unit) VALUES (7, 2, 'SKU-7', NULL)");
+
+		// When
+		materializer.recomputeAll();
+
+		// Then
+		assertNull(row(7).get("EFFECTIVE_PRICE"));
+		assertNull(row(7).get("DISCOUNT_SOURCE"));
+	}
+
+	@Test
+	@DisplayName("Should leave the full run to the instance holding the lease")
+	void testRunFull_LeaseHeldElsewhere() {
+		// Given
+		jdbcTemplate.update("UPDATE pricing_materializer_state SET lease_owner = 'other', lease_until = ? WHERE id = 1",
+				System.currentTimeMillis() + 60_000L);
+
+		// When
+		boolean ran = materializer.runFull();
+
+		// Then
+		assertFalse(ran);
+		assertNull(row(1).get("EFFECTIVE_PRICE"));
+	}
+
+	@Test
+	@DisplayName("Should take over an expired lease")
+	void testRunFull_ExpiredLease() {
+		// Given
+		jdbcTemplate.update("UPDATE pricing_materializer_state SET lease_owner = 'other', lease_until = ? WHERE id = 1",
+				System.currentTimeMillis() - 1L);
+
+		// When
+		boolean ran = materializer.runFull();
+
+		// Then
+		assertTrue(ran);
+		assertEquals(0, new BigDecimal("80.00").compareTo((BigDecimal) row(1).get("EFFECTIVE_PRICE")));
+	}
+
+	@Test
+	@DisplayName("Should skip the full run when another instance already materialized the current generation")
+	void testRunFull_AlreadyCurrent() {
+		// Given
+		assertTrue(materializer.runFull());
+		materializer.stop();
+		EffectivePriceMaterializer other = newMaterializer();
+
+		// When
+		boolean ran = other.runFull();
+		other.stop();
+
+		// Then
+		assertFalse(ran);
+		Map<String, Object> state = jdbcTemplate.queryForMap("SELECT lease_owner, generation FROM pricing_materializer_state WHERE id = 1");
+		assertNull(state.get("LEASE_OWNER"));
+		assertEquals(7L, ((Number) state.get("GENERATION")).longValue());
+	}
+
+}
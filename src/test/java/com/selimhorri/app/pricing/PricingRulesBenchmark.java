@@ -0,0 +1,148 @@
+package com.selimhorri.app.pricing;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.PricingAdjustmentType;
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.domain.PricingRuleScope;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.ProductMappingHelper;
+
+// findAll pricing over 100k products: the old per-row Product rebuild against the compiled rules.
+// Run with: mvn -Pbenchmark test-compile exec:exec -Djmh.include=PricingRulesBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseG1GC")
+public class PricingRulesBenchmark {
+
+	private static final int PRODUCTS = 100_000;
+	private static final int CATEGORIES = 50;
+
+	private List<Product> products;
+	private List<PricingRule> rules;
+	private PricingRules pricingRules;
+	private long now;
+	private String[] skus;
+	private Integer[] categoryIds;
+	private long[] basePrices;
+	private long[] effectivePrices;
+
+	@Setup
+	public void setUp() {
+		final List<Category> categories = new ArrayList<>(CATEGORIES);
+		for (int i = 1; i <= CATEGORIES; i++)
+			categories.add(Category.builder().categoryId(i).categoryTitle("Category " + i).build());
+
+		this.products = new ArrayList<>(PRODUCTS);
+		for (int i = 1; i <= PRODUCTS; i++)
+			this.products.add(Product.builder()
+					.productId(i)
+					.productTitle("Product " + i)
+					.sku("SKU-" + i)
+					.priceUnit(1_000L + i % 100_000)
+					.quantity(i % 100)
+					.category(categories.get(i % CATEGORIES))
+					.build());
+
+		// One global rule, a rule per category and a rule for every 100th SKU, some of them time-boxed
+		final List<PricingRule> rules = new ArrayList<>();
+		this.rules = rules;
+		rules.add(PricingRule.builder().ruleId(1).scope(PricingRuleScope.GLOBAL)
+				.adjustmentType(PricingAdjustmentType.PERCENTAGE).amount(new BigDecimal("20")).build());
+		for (int i = 1; i <= CATEGORIES; i++)
+			rules.add(PricingRule.builder().ruleId(rules.size() + 1).scope(PricingRuleScope.CATEGORY).categoryId(i)
+					.adjustmentType(PricingAdjustmentType.PERCENTAGE).amount(BigDecimal.valueOf(i % 30)).build());
+		for (int i = 100; i <= PRODUCTS; i += 100)
+			rules.add(PricingRule.builder().ruleId(rules.size() + 1).scope(PricingRuleScope.SKU).sku("SKU-" + i)
+					.adjustmentType(PricingAdjustmentType.FIXED).amount(new BigDecimal("2.50"))
+					.startsAt(Instant.EPOCH).endsAt(Instant.parse("2100-01-01T00:00:00Z")).build());
+		this.pricingRules = PricingRules.compile(rules);
+		this.now = System.currentTimeMillis();
+
+		this.skus = new String[PRODUCTS];
+		this.categoryIds = new Integer[PRODUCTS];
+		this.basePrices = new long[PRODUCTS];
+		this.effectivePrices = new long[PRODUCTS];
+		for (int i = 0; i < PRODUCTS; i++) {
+			final Product product = this.products.get(i);
+			this.skus[i] = product.getSku();
+			this.categoryIds[i] = product.getCategory().getCategoryId();
+			this.basePrices[i] = product.getPriceUnit();
+		}
+	}
+
+	// Previous ProductServiceImpl.findAll: a new Product per row, then the DTO mapping
+	@Benchmark
+	public List<ProductDto> rebuildEntities() {
+		return this.products.stream()
+				.map(product -> Product.builder()
+						.productId(product.getProductId())
+						.productTitle(product.getProductTitle())
+						.imageUrl(product.getImageUrl())
+						.sku(product.getSku())
+						.priceUnit(Math.round(product.getPriceUnit() * 0.8d))
+						.quantity(product.getQuantity())
+						.category(product.getCategory())
+						.build())
+				.map(ProductMappingHelper::map)
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	@Benchmark
+	public List<ProductDto> compiledRules() {
+		final PricingRules pricing = this.pricingRules;
+		final long at = this.now;
+		return this.products.stream()
+				.map(ProductMappingHelper::map)
+				.map(productDto -> pricing.apply(productDto, at))
+				.collect(Collectors.toUnmodifiableList());
+	}
+
+	// Materializer-style bulk pass in minor units; the gc profiler should report ~0 B/op
+	@Benchmark
+	public long[] bulkMinorUnits() {
+		final PricingRules pricing = this.pricingRules;
+		final long at = this.now;
+		for (int i = 0; i < PRODUCTS; i++)
+			this.effectivePrices[i] = pricing.price(this.skus[i], this.categoryIds[i], this.basePrices[i], at);
+		return this.effectivePrices;
+	}
+
+	// Cost of a refresh after a rule change
+	@Benchmark
+	public PricingRules compile() {
+		return PricingRules.compile(this.rules);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PricingRulesBenchmark.class.getSimpleName())
+				.addProfiler("gc")
+				.build()).run();
+	}
+
+}
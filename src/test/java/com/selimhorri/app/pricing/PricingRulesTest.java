@@ -0,0 +1,130 @@
+package com.selimhorri.app.pricing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.selimhorri.app.domain.PricingAdjustmentType;
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.domain.PricingRuleScope;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.MoneyHelper;
+
+@DisplayName("PricingRules Tests")
+class PricingRulesTest {
+
+	private static final long NOW = Instant.parse("2026-06-15T12:00:00Z").toEpochMilli();
+
+	private static PricingRule rule(int id, PricingRuleScope scope, PricingAdjustmentType type, String amount) {
+		return PricingRule.builder()
+				.ruleId(id)
+				.scope(scope)
+				.adjustmentType(type)
+				.amount(new BigDecimal(amount))
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should prefer SKU over category over global rules")
+	void testPrice_MostSpecificRuleWins() {
+		// Given
+		PricingRule global = rule(1, PricingRuleScope.GLOBAL, PricingAdjustmentType.PERCENTAGE, "20");
+		PricingRule category = rule(2, PricingRuleScope.CATEGORY, PricingAdjustmentType.PERCENTAGE, "50");
+		category.setCategoryId(3);
+		PricingRule sku = rule(3, PricingRuleScope.SKU, PricingAdjustmentType.FIXED, "15.50");
+		sku.setSku("LAP-001");
+
+		// When
+		PricingRules pricingRules = PricingRules.compile(List.of(global, category, sku));
+
+		// Then
+		assertEquals(8450L, pricingRules.price("LAP-001", 3, 10000L, NOW));
+		assertEquals(5000L, pricingRules.price("PHN-001", 3, 10000L, NOW));
+		assertEquals(8000L, pricingRules.price("PHN-001", 1, 10000L, NOW));
+		assertEquals(3, pricingRules.getRuleCount());
+	}
+
+	@Test
+	@DisplayName("Should only apply rules inside their time window, latest start first")
+	void testPrice_TimeWindows() {
+		// Given
+		PricingRule always = rule(1, PricingRuleScope.GLOBAL, PricingAdjustmentType.PERCENTAGE, "10");
+		PricingRule flashSale = rule(2, PricingRuleScope.GLOBAL, PricingAdjustmentType.PERCENTAGE, "40");
+		flashSale.setStartsAt(Instant.parse("2026-06-15T00:00:00Z"));
+		flashSale.setEndsAt(Instant.parse("2026-06-16T00:00:00Z"));
+		PricingRules pricingRules = PricingRules.compile(List.of(always, flashSale));
+
+		// When & Then
+		assertEquals(6000L, pricingRules.price(null, null, 10000L, NOW));
+		assertEquals(9000L, pricingRules.price(null, null, 10000L, Instant.parse("2026-06-16T00:00:00Z").toEpochMilli()));
+		assertEquals(9000L, pricingRules.price(null, null, 10000L, Instant.parse("2026-06-14T23:59:59Z").toEpochMilli()));
+	}
+
+	@Test
+	@DisplayName("Should bound a product's price by the windows of the rules that can apply to it only")
+	void testNextTransitionAfter_PerProduct() {
+		// Given
+		PricingRule always = rule(1, PricingRuleScope.GLOBAL, PricingAdjustmentType.PERCENTAGE, "10");
+		PricingRule categorySale = rule(2, PricingRuleScope.CATEGORY, PricingAdjustmentType.PERCENTAGE, "40");
+		categorySale.setCategoryId(3);
+		categorySale.setStartsAt(Instant.parse("2026-06-15T00:00:00Z"));
+		categorySale.setEndsAt(Instant.parse("2026-06-16T00:00:00Z"));
+		PricingRule skuSale = rule(3, PricingRuleScope.SKU, PricingAdjustmentType.FIXED, "5");
+		skuSale.setSku("TAB-001");
+		skuSale.setStartsAt(Instant.parse("2026-06-20T00:00:00Z"));
+		PricingRules pricingRules = PricingRules.compile(List.of(always, categorySale, skuSale), 42L);
+
+		// When & Then
+		assertEquals(42L, pricingRules.getGeneration());
+		assertEquals(Instant.parse("2026-06-16T00:00:00Z").toEpochMilli(), pricingRules.nextTransitionAfter("PHN-001", 3, NOW));
+		assertEquals(Instant.parse("2026-06-20T00:00:00Z").toEpochMilli(), pricingRules.nextTransitionAfter("TAB-001", 4, NOW));
+		assertEquals(Long.MAX_VALUE, pricingRules.nextTransitionAfter("PHN-001", 4, NOW));
+	}
+
+	@Test
+	@DisplayName("Should rewrite the DTO price in place and never go below zero")
+	void testApply_UpdatesDtoInPlace() {
+		// Given
+		PricingRule fixed = rule(1, PricingRuleScope.CATEGORY, PricingAdjustmentType.FIXED, "30");
+		fixed.setCategoryId(1);
+		PricingRules pricingRules = PricingRules.compile(List.of(fixed));
+		ProductDto cheap = ProductDto.builder()
+				.sku("CBL-001")
+				.priceUnit(1999L)
+				.categoryDto(CategoryDto.builder().categoryId(1).build())
+				.build();
+		ProductDto unpriced = ProductDto.builder().sku("CBL-002").build();
+
+		// When
+		ProductDto result = pricingRules.apply(cheap, NOW);
+
+		// Then
+		assertSame(cheap, result);
+		assertEquals(0L, result.getPriceUnit());
+		assertEquals(MoneyHelper.NO_PRICE, pricingRules.apply(unpriced, NOW).getPriceUnit());
+		assertSame(PricingRules.empty(), PricingRules.compile(List.of()));
+	}
+
+	@Test
+	@DisplayName("Should round percentage discounts half up to the minor unit, exactly")
+	void testPrice_ExactMinorUnits() {
+		// Given
+		PricingRules pricingRules = PricingRules.compile(List.of(
+				rule(1, PricingRuleScope.GLOBAL, PricingAdjustmentType.PERCENTAGE, "12.5")));
+
+		// When & Then
+		// 999.99 * 0.875 = 874.99125, 0.05 * 0.875 = 0.04375
+		assertEquals(87499L, pricingRules.price(null, null, 99999L, NOW));
+		assertEquals(4L, pricingRules.price(null, null, 5L, NOW));
+		// Above the former DECIMAL(7,2) cap
+		assertEquals(87_500_000_000L, pricingRules.price(null, null, 100_000_000_000L, NOW));
+	}
+
+}
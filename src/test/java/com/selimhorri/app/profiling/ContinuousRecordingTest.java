@@ -0,0 +1,94 @@
+package com.selimhorri.app.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@DisplayName("ContinuousRecording Tests")
+class ContinuousRecordingTest {
+
+	@TempDir
+	Path dumpDirectory;
+
+	private ContinuousRecording continuousRecording;
+
+	@BeforeEach
+	void setUp() {
+		assumeTrue(FlightRecorder.isAvailable());
+		continuousRecording = new ContinuousRecording("default", Duration.ofMinutes(30), DataSize.ofMegabytes(64),
+				Duration.ZERO, dumpDirectory, 2);
+		continuousRecording.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (continuousRecording != null)
+			continuousRecording.stop();
+	}
+
+	@Test
+	@DisplayName("Should dump catalog operation events while the recording keeps running")
+	void testDump_ContainsCatalogEvents() throws Exception {
+		// Given
+		CatalogOperationEvent event = new CatalogOperationEvent();
+		event.begin();
+		event.operation = "ProductService.findById";
+		event.entityId = 42;
+		event.rowCount = 1;
+		event.success = true;
+		event.commit();
+
+		// When
+		Path file = continuousRecording.dump(Duration.ofMinutes(5));
+
+		// Then
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+				.filter(recorded -> recorded.getEventType().getName().equals("com.selimhorri.app.CatalogOperation"))
+				.collect(Collectors.toList());
+		assertEquals(1, events.size());
+		assertEquals("ProductService.findById", events.get(0).getString("operation"));
+		assertEquals(42, events.get(0).getInt("entityId"));
+		assertTrue(file.startsWith(dumpDirectory));
+		assertTrue(continuousRecording.isRecording());
+	}
+
+	@Test
+	@DisplayName("Should keep only the newest max-dumps files")
+	void testDump_DeletesOldDumps() throws Exception {
+		// When
+		Path first = continuousRecording.dump(Duration.ofMinutes(1));
+		Thread.sleep(5);
+		continuousRecording.dump(Duration.ofMinutes(1));
+		Thread.sleep(5);
+		Path last = continuousRecording.dump(Duration.ofMinutes(1));
+
+		// Then
+		List<Path> dumps;
+		try (Stream<Path> files = Files.list(dumpDirectory)) {
+			dumps = files.collect(Collectors.toList());
+		}
+		assertEquals(2, dumps.size());
+		assertTrue(dumps.contains(last));
+		assertFalse(Files.exists(first));
+	}
+
+}
@@ -0,0 +1,281 @@
+package com.selimhorri.app.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.ResultSet;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.selimhorri.app.datagen.CatalogGenerator;
+import com.selimhorri.app.datagen.CatalogGeneratorSettings;
+import com.selimhorri.app.datagen.GeneratedCatalog;
+import com.selimhorri.app.metrics.QueryStats;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+
+// JDBC statements and rows fetched per REST operation against H2, so N+1 selects and extra round trips
+// fail the build. Everything runs on the test thread (app.async.enabled=false): the test opens the
+// outermost QueryStats scope and the service-level scopes roll up into it
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:statement_budget;DB_CLOSE_DELAY=-1",
+		"SPRING_CONFIG_IMPORT=",
+		"spring.cloud.config.enabled=false",
+		"spring.cloud.config.import-check.enabled=false",
+		"eureka.client.enabled=false",
+		"spring.zipkin.enabled=false",
+		"app.async.enabled=false",
+		"app.metrics.query-count.enabled=true"})
+@AutoConfigureMockMvc
+@DisplayName("Catalog statement budget Tests")
+class CatalogStatementBudgetTest {
+
+	private static final ThreadLocal<long[]> ROWS = new ThreadLocal<>();
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@TestConfiguration
+	static class RowCountingConfig {
+
+		// Rows read through ResultSet.next() on the measuring thread
+		@Bean
+		MethodExecutionListener rowCountingListener() {
+			return new MethodExecutionListener() {
+
+				@Override
+				public void beforeMethod(final MethodExecutionContext executionContext) {
+				}
+
+				@Override
+				public void afterMethod(final MethodExecutionContext executionContext) {
+					final long[] rows = ROWS.get();
+					if (rows != null && executionContext.getTarget() instanceof ResultSet
+							&& "next".equals(executionContext.getMethod().getName())
+							&& Boolean.TRUE.equals(executionContext.getResult()))
+						rows[0]++;
+				}
+
+			};
+		}
+
+	}
+
+	private static final class Usage {
+
+		private final int statements;
+		private final long rows;
+
+		private Usage(final int statements, final long rows) {
+			this.statements = statements;
+			this.rows = rows;
+		}
+
+	}
+
+	private Usage measure(final RequestBuilder request) throws Exception {
+		final long[] rows = new long[1];
+		ROWS.set(rows);
+		final QueryStats stats = QueryStats.begin();
+		try {
+			final MvcResult result = this.mockMvc.perform(request).andReturn();
+			this.mockMvc.perform(asyncDispatch(result)).andExpect(status().is2xxSuccessful());
+		}
+		finally {
+			stats.end();
+			ROWS.remove();
+		}
+		return new Usage(stats.getStatements(), rows[0]);
+	}
+
+	private GeneratedCatalog generate(final String skuPrefix, final int products) {
+		return new CatalogGenerator(this.dataSource).generate(CatalogGeneratorSettings.builder()
+				.products(products)
+				.categories(60)
+				.categoryDepth(3)
+				.skuPrefix(skuPrefix)
+				.batchSize(100)
+				.build());
+	}
+
+	private int count(final String sql, final Object... args) {
+		return new JdbcTemplate(this.dataSource).queryForObject(sql, Integer.class, args);
+	}
+
+	private static String productJson(final Integer productId, final String sku, final int categoryId) {
+		return String.format("{\"productId\":%s,\"productTitle\":\"Budget product\",\"imageUrl\":\"https://example.com/p.jpg\","
+				+ "\"sku\":\"%s\",\"priceUnit\":19.99,\"quantity\":5,\"category\":{\"categoryId\":%d}}", productId, sku, categoryId);
+	}
+
+	@Test
+	@DisplayName("GET /api/products should be one statement whatever the catalog size")
+	void testProductsFindAll_OneStatement() throws Exception {
+		// Given
+		Usage small = measure(get("/api/products"));
+		generate("BUDGET-ALL", 300);
+
+		// When
+		Usage large = measure(get("/api/products"));
+
+		// Then
+		int products = count("SELECT COUNT(*) FROM products p JOIN categories c ON p.category_id = c.category_id "
+				+ "WHERE c.category_title <> 'Deleted'");
+		assertEquals(1, small.statements);
+		assertEquals(1, large.statements);
+		assertEquals(products, large.rows);
+	}
+
+	@Test
+	@DisplayName("GET /api/products/{id} should be one statement and one row")
+	void testProductsFindById_OneStatement() throws Exception {
+		// When
+		Usage usage = measure(get("/api/products/1"));
+
+		// Then
+		assertEquals(1, usage.statements);
+		assertEquals(1, usage.rows);
+	}
+
+	@Test
+	@DisplayName("POST /api/products should check the category, insert and record the change")
+	void testProductsSave_Budget() throws Exception {
+		// When
+		Usage usage = measure(post("/api/products").contentType(MediaType.APPLICATION_JSON)
+				.content(productJson(null, "BUDGET-SAVE-1", 2)));
+
+		// Then
+		assertTrue(usage.statements <= 3, "statements " + usage.statements);
+		assertTrue(usage.rows <= 1, "rows " + usage.rows);
+	}
+
+	@Test
+	@DisplayName("PUT /api/products and /api/products/{id} should stay within their budgets")
+	void testProductsUpdate_Budget() throws Exception {
+		// Given
+		GeneratedCatalog catalog = generate("BUDGET-UPD", 10);
+		int productId = catalog.getFirstProductId();
+		int otherCategoryId = catalog.getLeafCategoryIds().get(catalog.getLeafCategoryIds().size() - 1);
+
+		// When
+		Usage byId = measure(put("/api/products/" + productId).contentType(MediaType.APPLICATION_JSON)
+				.content(productJson(productId, "BUDGET-UPD-A", otherCategoryId)));
+		Usage byBody = measure(put("/api/products").contentType(MediaType.APPLICATION_JSON)
+				.content(productJson(productId, "BUDGET-UPD-B", otherCategoryId)));
+
+		// Then
+		// Load, new category reference, UPDATE, change feed INSERT
+		assertTrue(byId.statements <= 4, "statements " + byId.statements);
+		assertTrue(byId.rows <= 2, "rows " + byId.rows);
+		// Same plus the existence check
+		assertTrue(byBody.statements <= 5, "statements " + byBody.statements);
+		assertTrue(byBody.rows <= 3, "rows " + byBody.rows);
+	}
+
+	@Test
+	@DisplayName("DELETE /api/products/{id} should be at most two statements")
+	void testProductsDelete_Budget() throws Exception {
+		// Given
+		int productId = generate("BUDGET-DEL", 1).getFirstProductId();
+
+		// When
+		Usage usage = measure(delete("/api/products/" + productId));
+
+		// Then
+		assertTrue(usage.statements <= 2, "statements " + usage.statements);
+		assertEquals(0, usage.rows);
+	}
+
+	@Test
+	@DisplayName("GET /api/categories should be one statement however deep the tree")
+	void testCategoriesFindAll_OneStatement() throws Exception {
+		// Given
+		generate("BUDGET-CAT", 1);
+
+		// When
+		Usage usage = measure(get("/api/categories"));
+
+		// Then
+		assertEquals(1, usage.statements);
+		assertEquals(count("SELECT COUNT(*) FROM categories WHERE LOWER(category_title) NOT IN ('deleted', 'no category')"),
+				usage.rows);
+	}
+
+	@Test
+	@DisplayName("GET /api/categories/{id} should be one statement and one row, parents not loaded")
+	void testCategoriesFindById_OneStatement() throws Exception {
+		// Given
+		GeneratedCatalog catalog = generate("BUDGET-CATID", 1);
+		int deepest = catalog.getCategoryIds().get(catalog.getCategoryIds().size() - 1);
+
+		// When
+		Usage usage = measure(get("/api/categories/" + deepest));
+
+		// Then
+		assertEquals(1, usage.statements);
+		assertEquals(1, usage.rows);
+	}
+
+	@Test
+	@DisplayName("POST and PUT /api/categories should stay within their budgets")
+	void testCategoriesWrite_Budget() throws Exception {
+		// When
+		Usage saved = measure(post("/api/categories").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"categoryTitle\":\"Budget category\",\"imageUrl\":\"https://example.com/c.jpg\"}"));
+		int categoryId = count("SELECT MAX(category_id) FROM categories");
+		Usage updated = measure(put("/api/categories/" + categoryId).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"categoryTitle\":\"Budget category renamed\"}"));
+
+		// Then
+		// Title check, INSERT, change feed INSERT
+		assertTrue(saved.statements <= 3, "statements " + saved.statements);
+		assertTrue(saved.rows <= 1, "rows " + saved.rows);
+		// Load, title check, UPDATE, change feed INSERT
+		assertTrue(updated.statements <= 4, "statements " + updated.statements);
+		assertTrue(updated.rows <= 2, "rows " + updated.rows);
+	}
+
+	@Test
+	@DisplayName("DELETE /api/categories/{id} should be constant however many products it moves")
+	void testCategoriesDelete_Budget() throws Exception {
+		// Given
+		GeneratedCatalog catalog = generate("BUDGET-CATDEL", 20);
+		int categoryId = catalog.getLeafCategoryIds().get(0);
+		// All of them in one category, so a per-product statement would blow the budget
+		new JdbcTemplate(dataSource).update("UPDATE products SET category_id = ? WHERE sku LIKE 'BUDGET-CATDEL%'", categoryId);
+		int movedProducts = count("SELECT COUNT(*) FROM products WHERE category_id = ?", categoryId);
+
+		// When
+		Usage usage = measure(delete("/api/categories/" + categoryId));
+
+		// Then
+		// Load, 'No Category', change feed INSERT ... SELECT and read-back, bulk UPDATE, cascaded collections (2),
+		// DELETE, category change INSERT
+		assertEquals(20, movedProducts);
+		assertTrue(usage.statements <= 9, "statements " + usage.statements);
+		assertTrue(usage.rows <= 2 + movedProducts, "rows " + usage.rows);
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.resource;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.selimhorri.app.cache.StaleReadCache;
+import com.selimhorri.app.concurrent.DbBulkhead;
+import com.selimhorri.app.concurrent.SingleFlight;
+import com.selimhorri.app.service.CatalogStreamService;
+import com.selimhorri.app.service.ProductService;
+
+@DisplayName("CatalogStreamResource Tests")
+class CatalogStreamResourceTest {
+
+	private CatalogStreamService catalogStreamService;
+	private SseEmitter emitter;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		catalogStreamService = mock(CatalogStreamService.class);
+		emitter = new SseEmitter();
+		when(catalogStreamService.subscribe()).thenReturn(emitter);
+		// ProductResource too: its /{productId} must never take /stream
+		mockMvc = MockMvcBuilders.standaloneSetup(
+				new CatalogStreamResource(catalogStreamService),
+				new ProductResource(mock(ProductService.class), mock(DbBulkhead.class), mock(SingleFlight.class),
+						mock(StaleReadCache.class)))
+				.build();
+	}
+
+	// SseEmitter writes the headers with the first event, so one is sent before looking at the response
+	private void assertEventStream(final RequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request)
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		emitter.send(SseEmitter.event().comment("keep-alive"));
+		emitter.complete();
+
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(content().string(":keep-alive\n\n"));
+		verify(catalogStreamService).subscribe();
+	}
+
+	@Test
+	@DisplayName("Should open the event stream when the client asks for text/event-stream")
+	void testStream_EventStreamAccept() throws Exception {
+		assertEventStream(get("/api/products/stream").accept(MediaType.TEXT_EVENT_STREAM));
+	}
+
+	@Test
+	@DisplayName("Should still open the event stream for other Accept headers instead of matching /{productId}")
+	void testStream_OtherAccept() throws Exception {
+		assertEventStream(get("/api/products/stream").accept(MediaType.APPLICATION_JSON));
+	}
+
+}
@@ -0,0 +1,190 @@
+package com.selimhorri.app.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.selimhorri.app.domain.CatalogChange;
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
+import com.selimhorri.app.dto.response.collection.ChangeFeedDtoResponse;
+import com.selimhorri.app.event.CatalogChangeEvent;
+import com.selimhorri.app.repository.CatalogChangeRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogChangeServiceImpl Tests")
+class CatalogChangeServiceImplTest {
+
+	@Mock
+	private CatalogChangeRepository catalogChangeRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@InjectMocks
+	private CatalogChangeServiceImpl catalogChangeService;
+
+	private CatalogChange change(final long sequence) {
+		return CatalogChange.builder()
+				.changeId(sequence)
+				.entityType(CatalogEntityType.PRODUCT)
+				.entityId((int) sequence)
+				.changeType(CatalogChangeType.UPDATED)
+				.changedAt(Instant.now())
+				.build();
+	}
+
+	@Test
+	@DisplayName("Should append a change row for a catalog write and publish it")
+	void testRecord_Success() {
+		// Given
+		when(catalogChangeRepository.save(any(CatalogChange.class))).thenAnswer(invocation -> {
+			CatalogChange saved = invocation.getArgument(0);
+			saved.setChangeId(99L);
+			return saved;
+		});
+
+		// When
+		catalogChangeService.record(CatalogEntityType.CATEGORY, 7, CatalogChangeType.DELETED);
+
+		// Then
+		ArgumentCaptor<CatalogChange> captor = ArgumentCaptor.forClass(CatalogChange.class);
+		verify(catalogChangeRepository, times(1)).save(captor.capture());
+		assertEquals(CatalogEntityType.CATEGORY, captor.getValue().getEntityType());
+		assertEquals(7, captor.getValue().getEntityId());
+		assertEquals(CatalogChangeType.DELETED, captor.getValue().getChangeType());
+		assertNotNull(captor.getValue().getChangedAt());
+
+		ArgumentCaptor<CatalogChangeEvent> eventCaptor = ArgumentCaptor.forClass(CatalogChangeEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+		assertEquals(99L, eventCaptor.getValue().getChange().getSequence());
+	}
+
+	@Test
+	@DisplayName("Should record every product of a category with one insert and publish the rows of its batch")
+	void testRecordProductsOfCategory_Success() {
+		// Given
+		when(catalogChangeRepository.insertProductChangesForCategory(eq(4), eq("UPDATED"), any(Instant.class), anyString()))
+				.thenReturn(2);
+		when(catalogChangeRepository.findChangesByBatchId(anyString())).thenReturn(Arrays.asList(change(21), change(22)));
+
+		// When
+		catalogChangeService.recordProductsOfCategory(4, CatalogChangeType.UPDATED);
+
+		// Then
+		ArgumentCaptor<String> insertedBatch = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<String> readBatch = ArgumentCaptor.forClass(String.class);
+		verify(catalogChangeRepository).insertProductChangesForCategory(eq(4), eq("UPDATED"), any(Instant.class),
+				insertedBatch.capture());
+		verify(catalogChangeRepository).findChangesByBatchId(readBatch.capture());
+		assertEquals(insertedBatch.getValue(), readBatch.getValue());
+		verify(catalogChangeRepository, never()).save(any(CatalogChange.class));
+
+		ArgumentCaptor<CatalogChangeEvent> eventCaptor = ArgumentCaptor.forClass(CatalogChangeEvent.class);
+		verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+		assertEquals(21L, eventCaptor.getAllValues().get(0).getChange().getSequence());
+		assertEquals(22L, eventCaptor.getAllValues().get(1).getChange().getSequence());
+	}
+
+	@Test
+	@DisplayName("Should tag each call with its own batch id")
+	void testRecordProductsOfCategory_DistinctBatches() {
+		// Given
+		when(catalogChangeRepository.insertProductChangesForCategory(eq(4), eq("UPDATED"), any(Instant.class), anyString()))
+				.thenReturn(1);
+
+		// When
+		catalogChangeService.recordProductsOfCategory(4, CatalogChangeType.UPDATED);
+		catalogChangeService.recordProductsOfCategory(4, CatalogChangeType.UPDATED);
+
+		// Then
+		ArgumentCaptor<String> batches = ArgumentCaptor.forClass(String.class);
+		verify(catalogChangeRepository, times(2)).findChangesByBatchId(batches.capture());
+		assertNotEquals(batches.getAllValues().get(0), batches.getAllValues().get(1));
+	}
+
+	@Test
+	@DisplayName("Should skip the read-back when the category has no products")
+	void testRecordProductsOfCategory_Empty() {
+		// Given
+		when(catalogChangeRepository.insertProductChangesForCategory(eq(4), eq("UPDATED"), any(Instant.class), anyString()))
+				.thenReturn(0);
+
+		// When
+		catalogChangeService.recordProductsOfCategory(4, CatalogChangeType.UPDATED);
+
+		// Then
+		verify(catalogChangeRepository, never()).findChangesByBatchId(any());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	@Test
+	@DisplayName("Should return a page with the next cursor when more changes exist")
+	void testFindChanges_HasMore() {
+		// Given
+		when(catalogChangeRepository.findChangesSince(eq(10L), any(Pageable.class)))
+				.thenReturn(Arrays.asList(change(11), change(12), change(13)));
+
+		// When
+		ChangeFeedDtoResponse result = catalogChangeService.findChanges(10L, 2);
+
+		// Then
+		assertEquals(2, result.getCollection().size());
+		assertEquals(12L, result.getNextSince());
+		assertTrue(result.isHasMore());
+		verify(catalogChangeRepository, times(1)).findChangesSince(10L, PageRequest.of(0, 3));
+	}
+
+	@Test
+	@DisplayName("Should keep the cursor when there are no new changes")
+	void testFindChanges_Empty() {
+		// Given
+		when(catalogChangeRepository.findChangesSince(eq(42L), any(Pageable.class)))
+				.thenReturn(Collections.emptyList());
+
+		// When
+		ChangeFeedDtoResponse result = catalogChangeService.findChanges(42L, 100);
+
+		// Then
+		assertTrue(result.getCollection().isEmpty());
+		assertEquals(42L, result.getNextSince());
+		assertFalse(result.isHasMore());
+	}
+
+	@Test
+	@DisplayName("Should reject a negative cursor or an out of range limit")
+	void testFindChanges_InvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> catalogChangeService.findChanges(-1L, 10));
+		assertThrows(IllegalArgumentException.class, () -> catalogChangeService.findChanges(0L, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> catalogChangeService.findChanges(0L, CatalogChangeServiceImpl.MAX_PAGE_SIZE + 1));
+		verify(catalogChangeRepository, never()).findChangesSince(anyLong(), any(Pageable.class));
+	}
+
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -23,11 +24,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CatalogChangeService;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("CategoryServiceImpl Tests")
@@ -39,6 +43,9 @@ class CategoryServiceImplTest {
 	@Mock
 	private ProductRepository productRepository;
 
+	@Mock
+	private CatalogChangeService catalogChangeService;
+
 	@InjectMocks
 	private CategoryServiceImpl categoryService;
 
@@ -466,6 +473,9 @@ class CategoryServiceImplTest {
 		verify(categoryRepository, times(1)).findByCategoryTitleIgnoreCase("No Category");
 		verify(productRepository, times(1)).updateCategoryForProducts(1, noCategory);
 		verify(categoryRepository, times(1)).delete(category);
+		verify(catalogChangeService, times(1)).recordProductsOfCategory(1, CatalogChangeType.UPDATED);
+		verify(catalogChangeService, never()).record(eq(CatalogEntityType.PRODUCT), any(), any());
+		verify(catalogChangeService, times(1)).record(CatalogEntityType.CATEGORY, 1, CatalogChangeType.DELETED);
 	}
 
 	@Test
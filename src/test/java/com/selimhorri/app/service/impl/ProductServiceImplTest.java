@@ -11,6 +11,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -25,14 +26,22 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.togglz.core.Feature;
 import org.togglz.core.manager.FeatureManager;
 
+import com.selimhorri.app.domain.CatalogChangeType;
+import com.selimhorri.app.domain.CatalogEntityType;
 import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.PricingAdjustmentType;
+import com.selimhorri.app.domain.PricingRule;
+import com.selimhorri.app.domain.PricingRuleScope;
 import com.selimhorri.app.domain.Product;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.pricing.PricingEngine;
+import com.selimhorri.app.pricing.PricingRules;
 import com.selimhorri.app.repository.CategoryRepository;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CatalogChangeService;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ProductServiceImpl Tests")
@@ -47,6 +56,12 @@ class ProductServiceImplTest {
 	@Mock
 	private FeatureManager featureManager;
 
+	@Mock
+	private CatalogChangeService catalogChangeService;
+
+	@Mock
+	private PricingEngine pricingEngine;
+
 	@InjectMocks
 	private ProductServiceImpl productService;
 
@@ -74,7 +89,7 @@ class ProductServiceImplTest {
 				.productTitle("Laptop")
 				.imageUrl("https://example.com/laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(999.99)
+				.priceUnit(99999L)
 				.quantity(10)
 				.category(category)
 				.build();
@@ -84,13 +99,21 @@ class ProductServiceImplTest {
 				.productTitle("Laptop")
 				.imageUrl("https://example.com/laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(999.99)
+				.priceUnit(99999L)
 				.quantity(10)
 				.categoryDto(categoryDto)
 				.build();
 
 		// Mock FeatureManager to return false for isActive() by default
 		lenient().when(featureManager.isActive(any(Feature.class))).thenReturn(false);
+
+		// Seeded rule from V8__create_pricing_rules_table.sql: 20% off everything
+		lenient().when(pricingEngine.current()).thenReturn(PricingRules.compile(List.of(PricingRule.builder()
+				.ruleId(1)
+				.scope(PricingRuleScope.GLOBAL)
+				.adjustmentType(PricingAdjustmentType.PERCENTAGE)
+				.amount(new BigDecimal("20.00"))
+				.build())));
 	}
 
 	@Test
@@ -102,7 +125,7 @@ class ProductServiceImplTest {
 				.productTitle("Phone")
 				.imageUrl("https://example.com/phone.jpg")
 				.sku("PHN-001")
-				.priceUnit(599.99)
+				.priceUnit(59999L)
 				.quantity(5)
 				.category(category)
 				.build();
@@ -130,7 +153,7 @@ class ProductServiceImplTest {
 				.productTitle("Phone")
 				.imageUrl("https://example.com/phone.jpg")
 				.sku("PHN-001")
-				.priceUnit(500.00)
+				.priceUnit(50000L)
 				.quantity(5)
 				.category(category)
 				.build();
@@ -144,8 +167,8 @@ class ProductServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals(2, result.size());
-		assertEquals(999.99, result.get(0).getPriceUnit());
-		assertEquals(500.00, result.get(1).getPriceUnit());
+		assertEquals(99999L, result.get(0).getPriceUnit());
+		assertEquals(50000L, result.get(1).getPriceUnit());
 		verify(featureManager, times(1)).isActive(any(Feature.class));
 	}
 
@@ -160,7 +183,7 @@ class ProductServiceImplTest {
 				.productTitle("Phone")
 				.imageUrl("https://example.com/phone.jpg")
 				.sku("PHN-001")
-				.priceUnit(500.00)
+				.priceUnit(50000L)
 				.quantity(5)
 				.category(category)
 				.build();
@@ -174,8 +197,8 @@ class ProductServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals(2, result.size());
-		assertEquals(999.99 * 0.8, result.get(0).getPriceUnit());
-		assertEquals(500.00 * 0.8, result.get(1).getPriceUnit());
+		assertEquals(79999L, result.get(0).getPriceUnit());
+		assertEquals(40000L, result.get(1).getPriceUnit());
 		verify(featureManager, times(1)).isActive(any(Feature.class));
 	}
 
@@ -193,7 +216,7 @@ class ProductServiceImplTest {
 		assertEquals(1, result.getProductId());
 		assertEquals("Laptop", result.getProductTitle());
 		assertEquals("LAP-001", result.getSku());
-		assertEquals(999.99, result.getPriceUnit());
+		assertEquals(99999L, result.getPriceUnit());
 		verify(productRepository, times(1)).findByIdWithoutDeleted(1);
 	}
 
@@ -210,11 +233,53 @@ class ProductServiceImplTest {
 		// Then
 		assertNotNull(result);
 		assertEquals(1, result.getProductId());
-		assertEquals(999.99 * 0.8, result.getPriceUnit());
+		assertEquals(79999L, result.getPriceUnit());
 		verify(featureManager, times(1)).isActive(any(Feature.class));
 		verify(productRepository, times(1)).findByIdWithoutDeleted(1);
 	}
 
+	@Test
+	@DisplayName("Should serve the materialized effective price only while base price, rules generation and window still hold")
+	void testFindById_UsesMaterializedEffectivePrice() {
+		// Given: the mocked rules are compiled without a generation (0)
+		when(featureManager.isActive(any(Feature.class))).thenReturn(true);
+		product.setEffectivePrice(74999L);
+		product.setEffectivePriceBase(99999L);
+		product.setEffectivePriceGeneration(0L);
+		product.setEffectivePriceValidUntil(Long.MAX_VALUE);
+		Product repriced = materialized(2, 50000L, 45000L, 0L, Long.MAX_VALUE);
+		Product oldRules = materialized(3, 50000L, 50000L, 99L, Long.MAX_VALUE);
+		Product windowClosed = materialized(4, 50000L, 50000L, 0L, System.currentTimeMillis() - 1);
+		Product savedSince = materialized(5, 50000L, 50000L, null, Long.MAX_VALUE);
+		when(productRepository.findByIdWithoutDeleted(1)).thenReturn(Optional.of(product));
+		when(productRepository.findByIdWithoutDeleted(2)).thenReturn(Optional.of(repriced));
+		when(productRepository.findByIdWithoutDeleted(3)).thenReturn(Optional.of(oldRules));
+		when(productRepository.findByIdWithoutDeleted(4)).thenReturn(Optional.of(windowClosed));
+		when(productRepository.findByIdWithoutDeleted(5)).thenReturn(Optional.of(savedSince));
+
+		// When & Then: stale rows are priced from the rules, 20% off 500.00
+		assertEquals(74999L, productService.findById(1).getPriceUnit());
+		assertEquals(40000L, productService.findById(2).getPriceUnit());
+		assertEquals(40000L, productService.findById(3).getPriceUnit());
+		assertEquals(40000L, productService.findById(4).getPriceUnit());
+		assertEquals(40000L, productService.findById(5).getPriceUnit());
+	}
+
+	private Product materialized(final int productId, final long priceUnit, final long base,
+			final Long generation, final long validUntil) {
+		return Product.builder()
+				.productId(productId)
+				.productTitle("Phone")
+				.sku("PHN-00" + productId)
+				.priceUnit(priceUnit)
+				.effectivePrice(30000L)
+				.effectivePriceBase(base)
+				.effectivePriceGeneration(generation)
+				.effectivePriceValidUntil(validUntil)
+				.category(category)
+				.build();
+	}
+
 	@Test
 	@DisplayName("Should throw ProductNotFoundException when product not found")
 	void testFindById_NotFound() {
@@ -234,7 +299,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -243,7 +308,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.category(category)
 				.build();
@@ -253,7 +318,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.category(category)
 				.build();
@@ -270,6 +335,7 @@ class ProductServiceImplTest {
 		assertEquals("Tablet", result.getProductTitle());
 		verify(categoryRepository, times(1)).findById(1);
 		verify(productRepository, times(1)).save(any(Product.class));
+		verify(catalogChangeService, times(1)).record(CatalogEntityType.PRODUCT, 2, CatalogChangeType.CREATED);
 	}
 
 	@Test
@@ -280,7 +346,7 @@ class ProductServiceImplTest {
 				.productTitle(null)
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -298,7 +364,7 @@ class ProductServiceImplTest {
 				.productTitle("")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -316,7 +382,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl(null)
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -334,7 +400,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku(null)
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -345,14 +411,13 @@ class ProductServiceImplTest {
 	}
 
 	@Test
-	@DisplayName("Should throw IllegalArgumentException when price unit is null")
+	@DisplayName("Should throw IllegalArgumentException when price unit is missing")
 	void testSave_NullPriceUnit() {
 		// Given
 		ProductDto invalidProductDto = ProductDto.builder()
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(null)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -370,7 +435,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(null)
 				.categoryDto(categoryDto)
 				.build();
@@ -388,7 +453,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(null)
 				.build();
@@ -411,7 +476,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(invalidCategoryDto)
 				.build();
@@ -429,7 +494,7 @@ class ProductServiceImplTest {
 				.productTitle("Tablet")
 				.imageUrl("https://example.com/tablet.jpg")
 				.sku("TAB-001")
-				.priceUnit(299.99)
+				.priceUnit(29999L)
 				.quantity(15)
 				.categoryDto(categoryDto)
 				.build();
@@ -440,6 +505,7 @@ class ProductServiceImplTest {
 		assertThrows(CategoryNotFoundException.class, () -> productService.save(newProductDto));
 		verify(categoryRepository, times(1)).findById(1);
 		verify(productRepository, never()).save(any(Product.class));
+		verify(catalogChangeService, never()).record(any(), any(), any());
 	}
 
 	@Test
@@ -451,7 +517,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.categoryDto(categoryDto)
 				.build();
@@ -461,7 +527,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.category(category)
 				.build();
@@ -489,7 +555,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.categoryDto(categoryDto)
 				.build();
@@ -511,7 +577,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.categoryDto(categoryDto)
 				.build();
@@ -529,7 +595,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.categoryDto(categoryDto)
 				.build();
@@ -539,7 +605,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.category(category)
 				.build();
@@ -566,7 +632,7 @@ class ProductServiceImplTest {
 				.productTitle("Updated Laptop")
 				.imageUrl("https://example.com/updated-laptop.jpg")
 				.sku("LAP-001")
-				.priceUnit(1099.99)
+				.priceUnit(109999L)
 				.quantity(8)
 				.categoryDto(categoryDto)
 				.build();
@@ -583,50 +649,27 @@ class ProductServiceImplTest {
 	@DisplayName("Should delete product by id successfully (soft delete)")
 	void testDeleteById_Success() {
 		// Given
-		Category deletedCategory = Category.builder()
-				.categoryId(2)
-				.categoryTitle("Deleted")
-				.imageUrl("https://example.com/deleted.jpg")
-				.build();
-
-		when(productRepository.findByIdWithoutDeleted(1)).thenReturn(Optional.of(product));
-		when(categoryRepository.findByCategoryTitle("Deleted")).thenReturn(Optional.of(deletedCategory));
-		when(productRepository.save(any(Product.class))).thenReturn(product);
+		when(productRepository.softDeleteById(1)).thenReturn(1);
 
 		// When
 		productService.deleteById(1);
 
 		// Then
-		verify(productRepository, times(1)).findByIdWithoutDeleted(1);
-		verify(categoryRepository, times(1)).findByCategoryTitle("Deleted");
-		verify(productRepository, times(1)).save(any(Product.class));
+		verify(productRepository, times(1)).softDeleteById(1);
+		verify(productRepository, never()).save(any(Product.class));
+		verify(catalogChangeService, times(1)).record(CatalogEntityType.PRODUCT, 1, CatalogChangeType.DELETED);
 	}
 
 	@Test
-	@DisplayName("Should throw ProductNotFoundException when deleting non-existent product")
+	@DisplayName("Should throw ProductNotFoundException when deleting non-existent or already deleted product")
 	void testDeleteById_ProductNotFound() {
 		// Given
-		when(productRepository.findByIdWithoutDeleted(999)).thenReturn(Optional.empty());
+		when(productRepository.softDeleteById(999)).thenReturn(0);
 
 		// When & Then
 		assertThrows(ProductNotFoundException.class, () -> productService.deleteById(999));
-		verify(productRepository, times(1)).findByIdWithoutDeleted(999);
-		verify(categoryRepository, never()).findByCategoryTitle(any());
-		verify(productRepository, never()).save(any(Product.class));
-	}
-
-	@Test
-	@DisplayName("Should throw RuntimeException when Deleted category not found")
-	void testDeleteById_DeletedCategoryNotFound() {
-		// Given
-		when(productRepository.findByIdWithoutDeleted(1)).thenReturn(Optional.of(product));
-		when(categoryRepository.findByCategoryTitle("Deleted")).thenReturn(Optional.empty());
-
-		// When & Then
-		assertThrows(RuntimeException.class, () -> productService.deleteById(1));
-		verify(productRepository, times(1)).findByIdWithoutDeleted(1);
-		verify(categoryRepository, times(1)).findByCategoryTitle("Deleted");
-		verify(productRepository, never()).save(any(Product.class));
+		verify(productRepository, times(1)).softDeleteById(999);
+		verify(catalogChangeService, never()).record(any(), any(), any());
 	}
 
 }
@@ -0,0 +1,72 @@
+package com.selimhorri.app.startup;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+@DisplayName("SelectiveLazyInitPostProcessor Tests")
+class SelectiveLazyInitPostProcessorTest {
+
+	private DefaultListableBeanFactory beanFactory;
+
+	@BeforeEach
+	void setUp() {
+		beanFactory = new DefaultListableBeanFactory();
+		register("templateEngine", "org.thymeleaf.spring5.SpringTemplateEngine");
+		register("thymeleafViewResolver", "org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration");
+		register("openApiResource", "org.springdoc.webmvc.api.OpenApiWebMvcResource");
+		register("togglzConsoleServlet", "org.togglz.console.TogglzConsoleServlet");
+		register("productServiceImpl", "com.selimhorri.app.service.impl.ProductServiceImpl");
+	}
+
+	private void register(final String beanName, final String className) {
+		final GenericBeanDefinition definition = new GenericBeanDefinition();
+		definition.setBeanClassName(className);
+		beanFactory.registerBeanDefinition(beanName, definition);
+	}
+
+	private boolean isLazy(final String beanName) {
+		return beanFactory.getBeanDefinition(beanName).isLazyInit();
+	}
+
+	@Test
+	@DisplayName("Should make the Thymeleaf, springdoc and Togglz console beans lazy and leave the rest eager")
+	void testPostProcess_DefaultPatterns() {
+		// Given
+		final SelectiveLazyInitPostProcessor postProcessor = new SelectiveLazyInitPostProcessor();
+		postProcessor.setEnvironment(new MockEnvironment());
+
+		// When
+		postProcessor.postProcessBeanFactory(beanFactory);
+
+		// Then
+		assertTrue(isLazy("templateEngine"));
+		assertTrue(isLazy("thymeleafViewResolver"));
+		assertTrue(isLazy("openApiResource"));
+		assertTrue(isLazy("togglzConsoleServlet"));
+		assertFalse(isLazy("productServiceImpl"));
+	}
+
+	@Test
+	@DisplayName("Should only use the patterns from app.startup.lazy-beans when set")
+	void testPostProcess_ConfiguredPatterns() {
+		// Given
+		final SelectiveLazyInitPostProcessor postProcessor = new SelectiveLazyInitPostProcessor();
+		postProcessor.setEnvironment(new MockEnvironment().withProperty("app.startup.lazy-beans", "org\\.springdoc\\..*"));
+
+		// When
+		postProcessor.postProcessBeanFactory(beanFactory);
+
+		// Then
+		assertTrue(isLazy("openApiResource"));
+		assertFalse(isLazy("templateEngine"));
+		assertFalse(isLazy("togglzConsoleServlet"));
+	}
+
+}
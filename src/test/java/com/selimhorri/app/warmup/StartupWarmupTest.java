@@ -0,0 +1,115 @@
+package com.selimhorri.app.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("StartupWarmup Tests")
+class StartupWarmupTest {
+
+	private ProductRepository productRepository;
+	private CategoryRepository categoryRepository;
+	private PlatformTransactionManager transactionManager;
+	private ApplicationInfoManager applicationInfoManager;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		productRepository = mock(ProductRepository.class);
+		categoryRepository = mock(CategoryRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		applicationInfoManager = mock(ApplicationInfoManager.class);
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	private StartupWarmup warmup(final boolean enabled) {
+		// No local.server.port: only the repository queries run
+		return new StartupWarmup(productRepository, categoryRepository, transactionManager,
+				new StaticListableBeanFactory(Map.of("applicationInfoManager", applicationInfoManager))
+						.getBeanProvider(ApplicationInfoManager.class),
+				new MockEnvironment(), meterRegistry, enabled, Duration.ofSeconds(5), 3, 2, 10);
+	}
+
+	@Test
+	@DisplayName("Should run the bounded rounds, record the warm-up and then report UP to Eureka")
+	void testRun_WarmsUpThenReportsUp() {
+		// When
+		warmup(true).run(null);
+
+		// Then
+		verify(categoryRepository, atLeastOnce()).findByCategoryTitleIgnoreCase("No Category");
+		verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+		assertEquals(6.0, meterRegistry.get("startup.warmup.rounds").counter().count());
+		assertEquals(1L, meterRegistry.get("startup.warmup").tag("outcome", "completed").timer().count());
+	}
+
+	@Test
+	@DisplayName("Should pick the warm-up ids with bounded queries and warm their lookups")
+	void testRun_BoundedHotIds() {
+		// Given
+		when(productRepository.findProductIdsWithoutDeleted(PageRequest.of(0, 10))).thenReturn(List.of(1, 2));
+		when(categoryRepository.findNonReservedIds(PageRequest.of(0, 10))).thenReturn(List.of(3));
+
+		// When
+		warmup(true).run(null);
+
+		// Then
+		verify(productRepository).findProductIdsWithoutDeleted(PageRequest.of(0, 10));
+		verify(categoryRepository).findNonReservedIds(PageRequest.of(0, 10));
+		verify(productRepository, never()).findAll();
+		verify(productRepository, atLeastOnce()).findById(1);
+		verify(productRepository, atLeastOnce()).findById(2);
+		verify(categoryRepository, atLeastOnce()).findById(3);
+	}
+
+	@Test
+	@DisplayName("Should count failing rounds without failing startup")
+	void testRun_ErrorsCounted() {
+		// Given
+		when(categoryRepository.existsByCategoryTitleIgnoreCase("warm-up")).thenThrow(new IllegalStateException("database down"));
+
+		// When
+		warmup(true).run(null);
+
+		// Then
+		assertEquals(6.0, meterRegistry.get("startup.warmup.errors").counter().count());
+		verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+	}
+
+	@Test
+	@DisplayName("Should report UP straight away when disabled")
+	void testRun_Disabled() {
+		// When
+		warmup(false).run(null);
+
+		// Then
+		verify(categoryRepository, never()).findByCategoryTitleIgnoreCase(any());
+		verify(applicationInfoManager).setInstanceStatus(InstanceStatus.UP);
+	}
+
+}